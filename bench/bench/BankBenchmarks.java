@@ -0,0 +1,368 @@
+package bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import model.entity.AccountEvent;
+import model.entity.Address;
+import model.entity.BankAccount;
+import model.entity.CurrentAccount;
+import model.entity.IdempotencyKey;
+import model.entity.Customer;
+import model.entity.Posting;
+import model.entity.SavingsAccount;
+import model.enums.AccountType;
+import model.enums.TransactionType;
+import persistence.Journal;
+import service.AccountEventListener;
+import service.BankServices;
+import util.BankConstants;
+import util.LatencyHistogram;
+
+/**
+ * Throughput benchmarks for the BankServices hot paths.
+ *
+ * <pre>
+ * javac -encoding UTF-8 -d out $(find src bench -name '*.java')
+ * java -Xmx8g -cp out bench.BankBenchmarks --accounts=1000,100000,10000000 --threads=1,4,16 --out=bench-results.json
+ * </pre>
+ *
+ * Options: {@code --accounts}, {@code --threads}, {@code --shards} (ShardedBank only),
+ * {@code --warmup} and {@code --time} (seconds), {@code --filter} (regex on benchmark
+ * name), {@code --out} (JSON file).
+ */
+public final class BankBenchmarks {
+
+    static final int FIRST_CUST_ID = 1;
+    static final int FIRST_ACC_NO = 100_000;
+    static final int BATCH_SIZE = 10_000;
+    static final int MAX_JOURNALED_ACCOUNTS = 10_000;
+    static final YearMonth FIRST_PERIOD = YearMonth.of(2000, 1);
+    static final long OPENING_BALANCE = 100_000_000L;   // ₹10,00,000 so debits rarely decline
+
+    private BankBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opts = Options.parse(args);
+        PrintStream console = System.out;
+        // Statements and the dashboard still print; keep that cost but not the terminal's
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), false, "UTF-8"));
+        System.setIn(new ByteArrayInputStream(new byte[0]));
+
+        Harness harness = new Harness(opts.warmupSeconds, opts.measureSeconds, console);
+        try {
+            for (int accounts : opts.accounts) {
+                console.printf("%n# %,d accounts%n", accounts);
+                BankServices bank = populate(accounts);
+                for (int threads : opts.threads) {
+                    runAll(harness, opts.filter, bank, accounts, threads);
+                }
+                bank = null;
+                System.gc();
+            }
+            if (opts.filter.matcher("money").find()) {
+                MoneyBenchmarks.runAll(harness);
+            }
+            if (opts.filter.matcher("metrics.record").find()) {
+                // One histogram shared by every thread, as a busy operation's is: what metering adds per call
+                LatencyHistogram histogram = new LatencyHistogram();
+                for (int threads : opts.threads) {
+                    harness.measure("metrics.record", Map.of(), threads,
+                            rnd -> histogram.record(500 + rnd.nextInt(5_000)));
+                }
+            }
+            if (opts.filter.matcher("ifsc").find() || opts.filter.matcher("accountCreate").find()) {
+                for (int threads : opts.threads) {
+                    IfscBenchmarks.runAll(harness, threads);
+                }
+            }
+            if (opts.filter.matcher("txnId").find()) {
+                for (int threads : opts.threads) {
+                    IdBenchmarks.runAll(harness, threads);
+                }
+            }
+            if (opts.filter.matcher("sharded").find()) {
+                for (int accounts : opts.accounts) {
+                    ShardBenchmarks.runAll(harness, accounts, opts.shards, opts.threads);
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+        harness.writeJson(opts.out);
+    }
+
+    private static void runAll(Harness h, Pattern filter, BankServices bank, int accounts, int threads)
+            throws Exception {
+        Map<String, Object> params = Map.of("accounts", accounts);
+
+        if (filter.matcher("findById.hit").find()) {
+            h.measure("findById.hit", params, threads, rnd -> bank.findById(randomCustId(rnd, accounts)));
+        }
+        if (filter.matcher("findById.miss").find()) {
+            h.measure("findById.miss", params, threads, rnd -> bank.findById(FIRST_CUST_ID + accounts + rnd.nextInt(accounts)));
+        }
+        if (filter.matcher("findByAccNo.hit").find()) {
+            h.measure("findByAccNo.hit", params, threads, rnd -> bank.findByAccNo(FIRST_ACC_NO + rnd.nextInt(accounts)));
+        }
+        if (filter.matcher("deposit").find()) {
+            h.measure("deposit", params, threads, rnd -> bank.deposit(randomCustId(rnd, accounts), 1 + rnd.nextInt(10_000)));
+        }
+        if (filter.matcher("deposit.unmetered").find()) {
+            // The same as "deposit" with operation metrics off: the difference is their cost
+            bank.getOperationMetrics().setEnabled(false);
+            try {
+                h.measure("deposit.unmetered", params, threads,
+                        rnd -> bank.deposit(randomCustId(rnd, accounts), 1 + rnd.nextInt(10_000)));
+            } finally {
+                bank.getOperationMetrics().setEnabled(true);
+            }
+        }
+        if (filter.matcher("deposit.keyed").find()) {
+            // A fresh key per call: every call inserts into the idempotency cache
+            h.measure("deposit.keyed", params, threads, rnd -> bank.deposit(randomCustId(rnd, accounts),
+                    1 + rnd.nextInt(10_000), new IdempotencyKey(rnd.nextLong(), rnd.nextLong())));
+        }
+        if (filter.matcher("deposit.listener").find()) {
+            // What a subscriber adds: the event is built and queued as the console does, then consumed
+            ConcurrentLinkedQueue<AccountEvent> queue = new ConcurrentLinkedQueue<>();
+            AccountEventListener listener = event -> {
+                queue.offer(event);
+                queue.poll();
+            };
+            bank.addListener(listener);
+            try {
+                h.measure("deposit.listener", params, threads,
+                        rnd -> bank.deposit(randomCustId(rnd, accounts), 1 + rnd.nextInt(10_000)));
+            } finally {
+                bank.removeListener(listener);
+            }
+        }
+        if (filter.matcher("withdraw").find()) {
+            h.measure("withdraw", params, threads, rnd -> bank.withdraw(randomCustId(rnd, accounts), 1 + rnd.nextInt(100)));
+        }
+        if (filter.matcher("withdraw.declined").find()) {
+            // Every call is refused for insufficient funds: the cost of building and throwing the exception
+            h.measure("withdraw.declined", params, threads,
+                    rnd -> bank.withdraw(randomCustId(rnd, accounts), 2 * OPENING_BALANCE));
+        }
+        if (filter.matcher("withdraw.declined.status").find()) {
+            h.measure("withdraw.declined.status", params, threads,
+                    rnd -> bank.tryWithdraw(randomCustId(rnd, accounts), 2 * OPENING_BALANCE));
+        }
+        if (filter.matcher("withdraw.mostlyDeclined").find()) {
+            // Nine declines to one approval, as in card authorisation at month end
+            h.measure("withdraw.mostlyDeclined", params, threads, rnd -> bank.withdraw(randomCustId(rnd, accounts),
+                    rnd.nextInt(10) == 0 ? 1 + rnd.nextInt(100) : 2 * OPENING_BALANCE));
+        }
+        if (filter.matcher("withdraw.mostlyDeclined.status").find()) {
+            h.measure("withdraw.mostlyDeclined.status", params, threads, rnd -> bank.tryWithdraw(
+                    randomCustId(rnd, accounts), rnd.nextInt(10) == 0 ? 1 + rnd.nextInt(100) : 2 * OPENING_BALANCE));
+        }
+        if (filter.matcher("transfer").find() && accounts > 1) {
+            h.measure("transfer", params, threads, rnd -> {
+                int from = randomCustId(rnd, accounts);
+                int to = randomCustId(rnd, accounts);
+                if (from != to) {
+                    bank.transfer(from, to, 1 + rnd.nextInt(100));
+                }
+            });
+        }
+        if (filter.matcher("printStatement").find()) {
+            h.measure("printStatement", params, threads, rnd -> bank.printStatement(randomCustId(rnd, accounts), 10));
+        }
+        if (filter.matcher("interestBatch").find()) {
+            // A new period each time; repeating one period would only measure the skip path
+            AtomicInteger month = new AtomicInteger();
+            h.measure("interestBatch", params, threads,
+                    rnd -> bank.addInterestToAllAccounts(FIRST_PERIOD.plusMonths(month.getAndIncrement())));
+        }
+        if (filter.matcher("dashboard.live").find()) {
+            h.measure("dashboard.live", params, threads, rnd -> bank.getDashboard(10));
+        }
+        if (filter.matcher("dashboard.scan").find()) {
+            // The three-figure pass showDashboard made over every customer before the live metrics
+            h.measure("dashboard.scan", params, threads, rnd -> {
+                long total = 0;
+                int high = 0;
+                Customer top = null;
+                for (Customer c : bank.customers()) {
+                    long balance = c.getCustAcc().getBalance();
+                    total += balance;
+                    if (balance > BankConstants.HIGH_BALANCE_THRESHOLD) high++;
+                    if (top == null || balance > top.getCustAcc().getBalance()) top = c;
+                }
+                if (total < 0 || high < 0 || top == null) throw new IllegalStateException("empty bank");
+            });
+        }
+        if (filter.matcher("batch.applyBatch").find() || filter.matcher("batch.singleCalls").find()) {
+            runBatch(h, filter, bank, accounts, threads);
+        }
+        if (filter.matcher("nameSearch.index").find()) {
+            h.measure("nameSearch.index", params, threads,
+                    rnd -> bank.searchByName(randomNameQuery(rnd, accounts), BankConstants.MAX_DISPLAY_ACCOUNTS));
+        }
+        if (filter.matcher("nameSearch.scan").find()) {
+            // The linear scan the console search used before the n-gram index
+            h.measure("nameSearch.scan", params, threads, rnd -> {
+                String query = randomNameQuery(rnd, accounts).toLowerCase();
+                List<Customer> found = new ArrayList<>();
+                for (Customer cust : bank.customers()) {
+                    if (cust.getCustName().toLowerCase().contains(query)) found.add(cust);
+                }
+            });
+        }
+    }
+
+    /**
+     * The same payroll-like mix (90% credits, 10% debits on random accounts)
+     * through applyBatch and through one deposit/withdraw call per posting;
+     * both scores are postings per second.
+     */
+    private static void runBatch(Harness h, Pattern filter, BankServices bank, int accounts, int threads)
+            throws Exception {
+        measureBatch(h, filter, bank, accounts, threads, false);
+
+        // With a journal each single call waits for its own group commit; the batch waits once
+        int journaled = Math.min(accounts, MAX_JOURNALED_ACCOUNTS);
+        Path dir = Files.createTempDirectory("pinnacle-batch");
+        Path journalFile = dir.resolve("journal.wal");
+        try (BankServices durable = new BankServices(Journal.open(journalFile, false))) {
+            Address addr = new Address("Pune", "Maharashtra", 411001);
+            for (int i = 0; i < journaled; i++) {
+                durable.addCustomer(newCustomer(FIRST_CUST_ID + i, FIRST_ACC_NO + i, addr));
+            }
+            measureBatch(h, filter, durable, journaled, threads, true);
+        } finally {
+            Files.deleteIfExists(journalFile);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void measureBatch(Harness h, Pattern filter, BankServices bank, int accounts, int threads,
+            boolean journal) throws Exception {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        List<Posting> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            int accNo = FIRST_ACC_NO + rnd.nextInt(accounts);
+            batch.add(rnd.nextInt(10) == 0 ? Posting.withdrawal(accNo, 1 + rnd.nextInt(100))
+                    : Posting.deposit(accNo, 1 + rnd.nextInt(10_000)));
+        }
+        Map<String, Object> params = Map.of("accounts", accounts, "batch", BATCH_SIZE, "journal", journal);
+
+        if (filter.matcher("batch.applyBatch").find()) {
+            h.measure("batch.applyBatch", params, threads, BATCH_SIZE, r -> bank.applyBatch(batch));
+        }
+        if (filter.matcher("batch.singleCalls").find()) {
+            h.measure("batch.singleCalls", params, threads, BATCH_SIZE, r -> {
+                for (Posting p : batch) {
+                    int custId = p.accNo() - FIRST_ACC_NO + FIRST_CUST_ID;
+                    try {
+                        if (p.type() == TransactionType.DEPOSIT) {
+                            bank.deposit(custId, p.amount());
+                        } else {
+                            bank.withdraw(custId, p.amount());
+                        }
+                    } catch (Exception declined) {
+                        // counted like a rejected posting in the batch
+                    }
+                }
+            });
+        }
+    }
+
+    static int randomCustId(ThreadLocalRandom rnd, int accounts) {
+        return FIRST_CUST_ID + rnd.nextInt(accounts);
+    }
+
+    /** A 5-character slice of an existing customer's surname, as a teller would type it. */
+    static String randomNameQuery(ThreadLocalRandom rnd, int accounts) {
+        String surname = surname(randomCustId(rnd, accounts));
+        int start = rnd.nextInt(surname.length() - 4);
+        return surname.substring(start, start + 5);
+    }
+
+    /**
+     * Builds a bank with alternating savings/current accounts; custId i owns accNo 100000+i-1.
+     */
+    static BankServices populate(int accounts) throws Exception {
+        BankServices bank = new BankServices();
+        Address addr = new Address("Pune", "Maharashtra", 411001);
+        for (int i = 0; i < accounts; i++) {
+            bank.addCustomer(newCustomer(FIRST_CUST_ID + i, FIRST_ACC_NO + i, addr));
+        }
+        return bank;
+    }
+
+    static Customer newCustomer(int custId, int accNo, Address addr) throws Exception {
+        BankAccount acc = (custId & 1) == 0
+                ? new SavingsAccount(accNo, "PUNB0ABCDEF", OPENING_BALANCE, AccountType.SAVINGS, 6.5)
+                : new CurrentAccount(accNo, "PUNB0ABCDEF", OPENING_BALANCE, AccountType.CURRENT, "Acme");
+        return new Customer(custId, FIRST_NAMES[custId % FIRST_NAMES.length] + " " + surname(custId), acc, addr);
+    }
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Aditi", "Amit", "Ananya", "Arjun", "Deepa", "Farhan", "Gita", "Harish", "Isha",
+            "Kavya", "Kiran", "Manoj", "Meera", "Neha", "Nikhil", "Pooja", "Rahul", "Ravi", "Riya",
+            "Sachin", "Sneha", "Sunil", "Tanvi", "Varun", "Vikram", "Yash", "Zoya" };
+    private static final String[] SYLLABLES = {
+            "ba", "cha", "da", "dev", "ga", "ha", "ja", "ka", "kar", "la", "ma", "man", "na", "pa", "pra",
+            "ra", "rao", "sa", "sha", "shi", "ta", "tha", "va", "war", "ya", "ni", "ri", "ti", "lu", "ku",
+            "dhu", "kh" };
+
+    /** Three syllables picked by custId, giving 32,768 distinct surnames. */
+    private static String surname(int custId) {
+        int h = custId / FIRST_NAMES.length;
+        String s = SYLLABLES[h & 31] + SYLLABLES[(h >>> 5) & 31] + SYLLABLES[(h >>> 10) & 31];
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    static final class Options {
+        List<Integer> accounts = List.of(1_000, 100_000);
+        List<Integer> threads = List.of(1, 4);
+        List<Integer> shards = List.of(1, 2, 4);
+        double warmupSeconds = 1;
+        double measureSeconds = 2;
+        Pattern filter = Pattern.compile(".*");
+        Path out = Path.of("bench-results.json");
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            for (String arg : args) {
+                String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+                if (kv.length != 2) throw new IllegalArgumentException("Expected --name=value: " + arg);
+                switch (kv[0]) {
+                case "accounts" -> o.accounts = ints(kv[1]);
+                case "threads" -> o.threads = ints(kv[1]);
+                case "shards" -> o.shards = ints(kv[1]);
+                case "warmup" -> o.warmupSeconds = Double.parseDouble(kv[1]);
+                case "time" -> o.measureSeconds = Double.parseDouble(kv[1]);
+                case "filter" -> o.filter = Pattern.compile(kv[1]);
+                case "out" -> o.out = Path.of(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + kv[0]);
+                }
+            }
+            return o;
+        }
+
+        static List<Integer> ints(String csv) {
+            List<Integer> list = new ArrayList<>();
+            for (String s : csv.split(",")) {
+                list.add(Integer.parseInt(s.trim().replace("_", "")));
+            }
+            return list;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.entity.Customer;
+import model.entity.DebitLimits;
+import model.enums.AccountType;
+import service.BankServices;
+import util.BankConstants;
+
+/**
+ * Stress check for concurrent tellers: {@code --threads} threads make random
+ * deposits, withdrawals and transfers (including opposite pairs on the same
+ * two accounts) on a small set of accounts, adding every applied deposit and
+ * subtracting every applied withdrawal from the expected net change. The total
+ * balance must then be exactly what it was before plus that change, and every
+ * account must still hold at least the minimum balance. A deadlock shows up as
+ * the run not finishing within the timeout. Exits non-zero on failure.
+ *
+ * <pre>
+ * java -cp out bench.ConservationCheck --threads=8 --accounts=50 --operations=250000
+ * </pre>
+ */
+public final class ConservationCheck {
+
+    private int threads = 8;
+    private int accounts = 50;
+    private int operations = 250_000;   // per thread
+
+    private ConservationCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConservationCheck check = parse(args);
+        try (BankServices bank = BankBenchmarks.populate(check.accounts)) {
+            check.run(bank);
+        }
+    }
+
+    private void run(BankServices bank) throws Exception {
+        // Without limits most transfers are applied rather than declined, which is the contended path
+        DebitLimits unlimited = new DebitLimits(DebitLimits.MAX_DAILY, DebitLimits.MAX_DAILY, DebitLimits.UNLIMITED_RATE);
+        for (AccountType type : AccountType.values()) bank.setDebitLimits(type, unlimited);
+        long before = total(bank);
+        LongAdder applied = new LongAdder();
+        LongAdder netChange = new LongAdder();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            done.add(pool.submit(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int k = 0; k < operations; k++) {
+                    int from = BankBenchmarks.randomCustId(rnd, accounts);
+                    long amount = 1 + rnd.nextInt(50_000);
+                    try {
+                        switch (rnd.nextInt(4)) {
+                        case 0 -> {
+                            bank.deposit(from, amount);
+                            netChange.add(amount);
+                        }
+                        case 1 -> {
+                            bank.withdraw(from, amount);
+                            netChange.add(-amount);
+                        }
+                        default -> {
+                            int to = BankBenchmarks.randomCustId(rnd, accounts);
+                            if (to == from) continue;
+                            bank.transfer(from, to, amount);
+                        }
+                        }
+                        applied.increment();
+                    } catch (Exception declined) {
+                        // declines move nothing; they are part of the load
+                    }
+                }
+                return null;
+            }));
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Postings did not finish: deadlock?");
+        }
+        for (Future<?> f : done) f.get();
+
+        long after = total(bank);
+        long expected = before + netChange.sum();
+        if (after != expected) {
+            throw new IllegalStateException("Total balance is " + after + " paise, expected " + expected + " ("
+                    + before + " before, net change " + netChange.sum() + ")");
+        }
+        for (Customer c : bank.customers()) {
+            if (c.getCustAcc().getBalance() < BankConstants.MIN_BALANCE) {
+                throw new IllegalStateException("Below minimum balance: " + c.getCustAcc());
+            }
+        }
+        System.out.printf("✅ %,d of %,d postings applied on %d threads, total balance %,d paise as expected%n",
+                applied.sum(), (long) threads * operations, threads, after);
+    }
+
+    private static long total(BankServices bank) {
+        long total = 0;
+        for (Customer c : bank.customers()) total += c.getCustAcc().getBalance();
+        return total;
+    }
+
+    private static ConservationCheck parse(String[] args) {
+        ConservationCheck c = new ConservationCheck();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Expected --name=value: " + arg);
+            switch (kv[0]) {
+            case "threads" -> c.threads = Integer.parseInt(kv[1]);
+            case "accounts" -> c.accounts = Integer.parseInt(kv[1].replace("_", ""));
+            case "operations" -> c.operations = Integer.parseInt(kv[1].replace("_", ""));
+            default -> throw new IllegalArgumentException("Unknown option: " + kv[0]);
+            }
+        }
+        return c;
+    }
+}
@@ -0,0 +1,170 @@
+package bench;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.entity.Account;
+import model.entity.DebitLimits;
+import model.entity.LimitPolicy;
+import model.entity.SavingsAccount;
+import model.enums.AccountType;
+import model.enums.PostingStatus;
+import util.EpochClock;
+
+/**
+ * Concurrent daily-limit check: {@code --threads} threads race withdrawals of
+ * {@link #AMOUNT} against one account whose daily limit is a whole number of
+ * them, on a controllable clock.
+ *
+ * <ol>
+ * <li>Within one day exactly {@code limit / AMOUNT} withdrawals succeed, the
+ * rest are declined with DAILY_LIMIT, and the day's total equals the limit.</li>
+ * <li>Across midnight: the clock moves to the next day while the race runs.
+ * Each success is attributed to the day its limit check read, through the
+ * clock itself; neither day may exceed the limit, and the new day must be
+ * able to reach it again.</li>
+ * </ol>
+ *
+ * Exits non-zero on failure. {@code java -cp out bench.DebitLimitCheck --threads=16}
+ */
+public final class DebitLimitCheck {
+
+    private static final long AMOUNT = 1_000;                  // ₹10
+    private static final long DAILY_LIMIT = 5_000_000;         // ₹50,000: 5,000 withdrawals
+    private static final long OPENING_BALANCE = 1_000_000_000L;
+
+    private int threads = 16;
+
+    // The controllable time, and the day each thread's last limit check saw
+    private final AtomicLong now = new AtomicLong();
+    private final Map<Thread, Long> lastRead = new ConcurrentHashMap<>();
+    private final EpochClock clock = new EpochClock(ZoneOffset.UTC, () -> {
+        long millis = now.get();
+        lastRead.put(Thread.currentThread(), millis);
+        return millis;
+    });
+
+    private DebitLimitCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        DebitLimitCheck check = parse(args);
+        ExecutorService pool = Executors.newFixedThreadPool(check.threads);
+        try {
+            check.sameDay(pool);
+            check.acrossMidnight(pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void sameDay(ExecutorService pool) throws Exception {
+        now.set(millisAt(LocalDate.of(2025, 3, 14), 12));
+        Account acc = newAccount();
+        long[] perDay = race(pool, acc, (int) (2 * DAILY_LIMIT / AMOUNT / threads) + 1, null);
+        long today = perDay[1];
+        if (today != DAILY_LIMIT || acc.getTodayDebitTotal() != DAILY_LIMIT
+                || acc.getBalance() != OPENING_BALANCE - DAILY_LIMIT) {
+            throw new IllegalStateException("Debited " + today + " paise (counter " + acc.getTodayDebitTotal()
+                    + ") against a daily limit of " + DAILY_LIMIT);
+        }
+        System.out.printf("✅ %d threads racing for one day's limit debited exactly ₹%,d%n", threads,
+                DAILY_LIMIT / 100);
+    }
+
+    private void acrossMidnight(ExecutorService pool) throws Exception {
+        LocalDate day = LocalDate.of(2025, 3, 14);
+        now.set(millisAt(day, 23) + 59 * 60_000 + 59_000);     // 23:59:59
+        Account acc = newAccount();
+        long midnight = millisAt(day.plusDays(1), 0);
+        // Attempts for both days' limits, with the clock moved once half the first day's limit is in
+        long[] perDay = race(pool, acc, (int) (4 * DAILY_LIMIT / AMOUNT / threads) + 1, applied -> {
+            if (applied >= DAILY_LIMIT / AMOUNT / 2) now.compareAndSet(midnight - 1_000, midnight);
+        });
+        long before = perDay[0];
+        long after = perDay[1];
+        if (before > DAILY_LIMIT || after != DAILY_LIMIT) {
+            throw new IllegalStateException("Debited " + before + " paise before midnight and " + after
+                    + " after, against a daily limit of " + DAILY_LIMIT);
+        }
+        if (acc.getBalance() != OPENING_BALANCE - before - after || acc.getTodayDebitTotal() != DAILY_LIMIT
+                || acc.getLastDebitDate().equals(day)) {
+            throw new IllegalStateException("Counters and balance disagree after midnight: " + acc);
+        }
+        System.out.printf("✅ Across midnight: ₹%,d then ₹%,d, never above the daily limit%n", before / 100,
+                after / 100);
+    }
+
+    private interface Progress {
+        void applied(long count);
+    }
+
+    /**
+     * Each thread makes {@code attempts} withdrawals; returns the paise debited
+     * on the clock's first day seen [0] and on the later day [1] (or [1] only
+     * if the clock never moves).
+     */
+    private long[] race(ExecutorService pool, Account acc, int attempts, Progress progress) throws Exception {
+        long startDay = Math.floorDiv(now.get(), 86_400_000L);
+        boolean moves = progress != null;
+        LongAdder applied = new LongAdder();
+        LongAdder[] perDay = { new LongAdder(), new LongAdder() };
+        CyclicBarrier start = new CyclicBarrier(threads);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            done.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < attempts; i++) {
+                    PostingStatus status = acc.tryWithdraw(AMOUNT);
+                    if (status == PostingStatus.APPLIED) {
+                        long day = Math.floorDiv(lastRead.get(Thread.currentThread()), 86_400_000L);
+                        perDay[moves && day == startDay ? 0 : 1].add(AMOUNT);
+                        applied.increment();
+                        if (moves) progress.applied(applied.sum());
+                    } else if (status != PostingStatus.DAILY_LIMIT) {
+                        throw new IllegalStateException("Unexpected decline: " + status);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : done) f.get(5, TimeUnit.MINUTES);
+        return new long[] { perDay[0].sum(), perDay[1].sum() };
+    }
+
+    private Account newAccount() throws Exception {
+        SavingsAccount acc = new SavingsAccount(BankBenchmarks.FIRST_ACC_NO, "PUNB0ABCDEF", OPENING_BALANCE,
+                AccountType.SAVINGS, 6.5);
+        acc.attachLimitPolicy(new LimitPolicy(clock));
+        acc.setDebitLimits(new DebitLimits(AMOUNT, DAILY_LIMIT, DebitLimits.UNLIMITED_RATE));
+        return acc;
+    }
+
+    private static long millisAt(LocalDate day, int hour) {
+        return day.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli() + hour * 3_600_000L;
+    }
+
+    private static DebitLimitCheck parse(String[] args) {
+        DebitLimitCheck c = new DebitLimitCheck();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Expected --name=value: " + arg);
+            switch (kv[0]) {
+            case "threads" -> c.threads = Integer.parseInt(kv[1]);
+            default -> throw new IllegalArgumentException("Unknown option: " + kv[0]);
+            }
+        }
+        return c;
+    }
+}
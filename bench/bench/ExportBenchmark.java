@@ -0,0 +1,110 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import model.entity.Account;
+import model.entity.Address;
+import model.enums.TransactionType;
+import service.BankServices;
+import service.StatementExporter;
+
+/**
+ * Whole-bank statement export throughput. Builds a bank whose accounts carry
+ * {@code --transactions} history rows in total (most of them spilled to the
+ * history segments, as on a long-running bank), then times one export of
+ * everything to CSV and one to the binary format, reporting MB/s and rows/s.
+ *
+ * <pre>
+ * java -Xmx8g -cp out bench.ExportBenchmark --transactions=100_000_000 --accounts=100000 --out=export.json
+ * </pre>
+ */
+public final class ExportBenchmark {
+
+    private static final LocalDateTime FIRST_ROW = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private long transactions = 100_000_000L;
+    private int accounts = 100_000;
+    private Path out = Path.of("export-results.json");
+
+    private ExportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ExportBenchmark opts = parse(args);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), false, "UTF-8"));
+        Harness harness = new Harness(0, 0, console);
+        Path dir = Files.createTempDirectory("pinnacle-export");
+        try (BankServices bank = new BankServices()) {
+            populate(bank, opts.accounts, opts.transactions);
+            StatementExporter exporter = new StatementExporter(bank);
+            Map<String, Object> params = Map.of("accounts", opts.accounts, "transactions", opts.transactions);
+            for (StatementExporter.Format format : StatementExporter.Format.values()) {
+                Path file = dir.resolve("statement." + format.name().toLowerCase());
+                long start = System.nanoTime();
+                StatementExporter.Report report = exporter.exportAll(FIRST_ROW.toLocalDate(),
+                        LocalDate.now(), format, file);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                if (report.rows() != opts.transactions) {
+                    throw new IllegalStateException("Exported " + report.rows() + " of " + opts.transactions + " rows");
+                }
+                String name = "export." + format.name().toLowerCase();
+                harness.record(name, "thrpt", params, report.bytes() / 1e6 / seconds, "MB/s");
+                harness.record(name + ".rows", "thrpt", params, report.rows() / seconds, "rows/s");
+                Files.delete(file);
+            }
+        } finally {
+            System.setOut(console);
+            Files.deleteIfExists(dir);
+        }
+        harness.writeJson(opts.out);
+    }
+
+    // Round-robin over the accounts so each one's rows are a minute apart and spread over many days
+    private static void populate(BankServices bank, int accounts, long transactions) throws Exception {
+        Address addr = new Address("Pune", "Maharashtra", 411001);
+        Account[] accs = new Account[accounts];
+        long[] balances = new long[accounts];
+        for (int i = 0; i < accounts; i++) {
+            bank.addCustomer(BankBenchmarks.newCustomer(BankBenchmarks.FIRST_CUST_ID + i,
+                    BankBenchmarks.FIRST_ACC_NO + i, addr));
+            accs[i] = (Account) bank.findById(BankBenchmarks.FIRST_CUST_ID + i).getCustAcc();
+            balances[i] = accs[i].getBalance();
+        }
+        String[] descriptions = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            descriptions[i] = "Deposit to A/c " + accs[i].getAccNo();
+        }
+        long perAccount = (transactions + accounts - 1) / accounts;
+        long row = 0;
+        for (long k = 0; k < perAccount && row < transactions; k++) {
+            LocalDateTime at = FIRST_ROW.plusMinutes(k);
+            for (int i = 0; i < accounts && row < transactions; i++, row++) {
+                long amount = 100 + row % 50_000;
+                balances[i] += amount;
+                accs[i].restoreTransaction(row + 1, at, TransactionType.DEPOSIT, amount, balances[i], descriptions[i]);
+            }
+        }
+    }
+
+    private static ExportBenchmark parse(String[] args) {
+        ExportBenchmark b = new ExportBenchmark();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Expected --name=value: " + arg);
+            switch (kv[0]) {
+            case "transactions" -> b.transactions = Long.parseLong(kv[1].replace("_", ""));
+            case "accounts" -> b.accounts = Integer.parseInt(kv[1].replace("_", ""));
+            case "out" -> b.out = Path.of(kv[1]);
+            default -> throw new IllegalArgumentException("Unknown option: " + kv[0]);
+            }
+        }
+        return b;
+    }
+}
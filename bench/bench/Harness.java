@@ -0,0 +1,146 @@
+package bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Minimal throughput harness (warmup + timed measurement, N threads) with
+ * JMH-style JSON output. Kept dependency-free so it runs from a plain javac
+ * build; results are comparable run-to-run on the same machine.
+ */
+public final class Harness {
+
+    /** One benchmark operation; exceptions count as completed operations. */
+    public interface Op {
+        void run(ThreadLocalRandom rnd) throws Exception;
+    }
+
+    /**
+     * {@code mode} is "thrpt" (score in ops/s), "ss" (single shot, score in ms)
+     * or "sample" (a latency percentile).
+     */
+    public record Result(String benchmark, String mode, Map<String, Object> params, double score, String scoreUnit) {
+    }
+
+    private final long warmupNanos;
+    private final long measureNanos;
+    private final PrintStream log;
+    private final List<Result> results = new ArrayList<>();
+
+    public Harness(double warmupSeconds, double measureSeconds, PrintStream log) {
+        this.warmupNanos = (long) (warmupSeconds * 1e9);
+        this.measureNanos = (long) (measureSeconds * 1e9);
+        this.log = log;
+    }
+
+    public Result measure(String name, Map<String, Object> params, int threads, Op op) throws InterruptedException {
+        return measure(name, params, threads, 1, op);
+    }
+
+    /** As {@link #measure(String, Map, int, Op)} when each call performs {@code opsPerCall} operations. */
+    public Result measure(String name, Map<String, Object> params, int threads, int opsPerCall, Op op)
+            throws InterruptedException {
+        run(threads, warmupNanos, op);
+        long[] totals = run(threads, measureNanos, op);
+        totals[0] *= opsPerCall;
+        double seconds = totals[1] / 1e9;
+        double opsPerSec = totals[0] / seconds;
+        double nsPerOp = totals[0] == 0 ? 0 : (totals[1] * (double) threads) / totals[0];
+
+        Map<String, Object> allParams = new LinkedHashMap<>(params);
+        allParams.put("threads", threads);
+        Result result = new Result(name, "thrpt", allParams, opsPerSec, "ops/s");
+        results.add(result);
+        log.printf("%-28s %-36s %,16.0f ops/s %,12.1f ns/op%n", name, allParams, opsPerSec, nsPerOp);
+        return result;
+    }
+
+    /** Records one timed run of something too expensive to repeat (e.g. a restart). */
+    public Result recordSingleShot(String name, Map<String, Object> params, long elapsedNanos) {
+        Result result = new Result(name, "ss", new LinkedHashMap<>(params), elapsedNanos / 1e6, "ms");
+        results.add(result);
+        log.printf("%-28s %-36s %,16.1f ms%n", name, params, result.score());
+        return result;
+    }
+
+    /** Records a score measured outside the harness, e.g. by a load client. */
+    public Result record(String name, String mode, Map<String, Object> params, double score, String scoreUnit) {
+        Result result = new Result(name, mode, new LinkedHashMap<>(params), score, scoreUnit);
+        results.add(result);
+        log.printf("%-28s %-36s %,16.1f %s%n", name, params, score, scoreUnit);
+        return result;
+    }
+
+    public List<Result> results() {
+        return results;
+    }
+
+    /** Returns {operations, elapsedNanos}. */
+    private static long[] run(int threads, long durationNanos, Op op) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] window = new long[2];
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                long count = 0;
+                try {
+                    start.await();
+                    long deadline = System.nanoTime() + durationNanos;
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            op.run(rnd);
+                        } catch (Exception expected) {
+                            // declines and misses are part of the measured work
+                        }
+                        count++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    ops.add(count);
+                    done.countDown();
+                }
+            }, "bench-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        window[0] = System.nanoTime();
+        start.countDown();
+        done.await();
+        window[1] = System.nanoTime();
+        return new long[] { ops.sum(), window[1] - window[0] };
+    }
+
+    public void writeJson(Path out) throws IOException {
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            sb.append("  {\"benchmark\": \"").append(r.benchmark()).append("\", \"mode\": \"").append(r.mode())
+              .append("\", \"params\": {");
+            int p = 0;
+            for (Map.Entry<String, Object> e : r.params().entrySet()) {
+                if (p++ > 0) sb.append(", ");
+                sb.append('"').append(e.getKey()).append("\": \"").append(e.getValue()).append('"');
+            }
+            sb.append("}, \"primaryMetric\": {\"score\": ").append(String.format(Locale.ROOT, "%.3f", r.score()))
+              .append(", \"scoreUnit\": \"").append(r.scoreUnit()).append("\"}}")
+              .append(i + 1 < results.size() ? ",\n" : "\n");
+        }
+        sb.append("]\n");
+        Files.writeString(out, sb.toString(), StandardCharsets.UTF_8);
+        log.println("Results written to " + out.toAbsolutePath());
+    }
+}
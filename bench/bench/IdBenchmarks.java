@@ -0,0 +1,30 @@
+package bench;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import util.IdGenerator;
+
+/**
+ * Transaction id generation: the {@link IdGenerator} used for every posting
+ * versus the single {@code AtomicInteger} it replaced, which also ran out at
+ * 2^31. Run with {@code --filter=txnId --threads=1,2,4,8,16,32,64}.
+ */
+final class IdBenchmarks {
+
+    private IdBenchmarks() {
+    }
+
+    static void runAll(Harness h, int threads) throws InterruptedException {
+        Map<String, Object> params = Map.of("nodes", 1);
+
+        IdGenerator generator = new IdGenerator(1, System::currentTimeMillis);
+        h.measure("txnId.generator", params, threads, rnd -> {
+            if (generator.next() <= 0) throw new IllegalStateException();
+        });
+        AtomicInteger counter = new AtomicInteger(1);
+        h.measure("txnId.atomicInt", params, threads, rnd -> {
+            if (counter.getAndIncrement() == 0) throw new IllegalStateException();
+        });
+    }
+}
@@ -0,0 +1,181 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import util.IdGenerator;
+
+/**
+ * Uniqueness check for {@link IdGenerator}:
+ *
+ * <ol>
+ * <li>{@code --threads} threads each take {@code --ids} ids from one
+ * generator on the real clock: every id is unique, each thread's ids increase,
+ * ids taken one after another under a lock increase across threads, and every
+ * id carries the generator's node. The same race then runs on a clock that
+ * moves on every few reads, so threads keep contending for the first tick of
+ * a new millisecond.</li>
+ * <li>Sequence overflow: the same race on a clock frozen in one millisecond,
+ * so the 4096 sequence numbers run out many times over. Ids stay unique and
+ * increasing, and the timestamp returns to the clock once it moves on.</li>
+ * <li>Clock regression: the clock steps back by a second, and a restarted
+ * generator with the clock set back observes the last journaled id. Neither
+ * ever repeats or goes below an earlier id.</li>
+ * </ol>
+ *
+ * Exits non-zero on failure. {@code java -cp out bench.IdGeneratorCheck --threads=16 --ids=100_000}
+ */
+public final class IdGeneratorCheck {
+
+    private static final int NODE = 5;
+    private static final long START = IdGenerator.EPOCH_MILLIS + 86_400_000L;
+
+    private int threads = 16;
+    private int ids = 100_000;
+
+    private IdGeneratorCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        IdGeneratorCheck check = parse(args);
+        ExecutorService pool = Executors.newFixedThreadPool(check.threads);
+        try {
+            check.manyThreads(pool);
+            check.overflow(pool);
+            check.regression();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void manyThreads(ExecutorService pool) throws Exception {
+        race(pool, new IdGenerator(NODE, System::currentTimeMillis), "real clock");
+        // A clock that moves on every few reads, so threads keep racing to claim a new millisecond
+        AtomicLong reads = new AtomicLong();
+        race(pool, new IdGenerator(NODE, () -> START + reads.getAndIncrement() / 8), "fast clock");
+        System.out.printf("✅ %d threads × %,d ids: all unique, increasing per thread and in call order%n", threads,
+                ids);
+    }
+
+    private void overflow(ExecutorService pool) throws Exception {
+        AtomicLong now = new AtomicLong(START);
+        IdGenerator generator = new IdGenerator(NODE, now::get);
+        long last = race(pool, generator, "frozen clock");
+        if (IdGenerator.timestampOf(last) <= START) {
+            throw new IllegalStateException("More than 4096 ids in one millisecond did not borrow later ticks");
+        }
+
+        // Once the clock passes the borrowed ticks, ids carry the clock's millisecond again
+        now.set(IdGenerator.timestampOf(last) + 1_000);
+        long id = generator.next();
+        expectAbove(last, id, "after the clock moved on");
+        if (IdGenerator.timestampOf(id) != now.get()) {
+            throw new IllegalStateException("Timestamp " + IdGenerator.timestampOf(id) + " after overflow, clock at "
+                    + now.get());
+        }
+        System.out.printf("✅ %,d ids in one millisecond stay unique and increasing%n", (long) threads * ids);
+    }
+
+    private void regression() {
+        AtomicLong now = new AtomicLong(START);
+        IdGenerator generator = new IdGenerator(NODE, now::get);
+        long last = generator.next();
+        for (int i = 0; i < 1_000; i++) {
+            if (i % 100 == 0) now.addAndGet(1);
+            last = expectAbove(last, generator.next(), "before the step");
+        }
+
+        now.addAndGet(-1_000);
+        for (int i = 0; i < 10_000; i++) {
+            last = expectAbove(last, generator.next(), "with the clock stepped back");
+        }
+        now.addAndGet(2_000);
+        last = expectAbove(last, generator.next(), "once the clock caught up");
+        if (IdGenerator.timestampOf(last) != now.get()) {
+            throw new IllegalStateException("Timestamp did not follow the clock once it caught up");
+        }
+
+        // A restart with the clock set back: recovery observes the last id read from the journal
+        now.addAndGet(-60_000);
+        IdGenerator restarted = new IdGenerator(NODE, now::get);
+        restarted.observe(last);
+        expectAbove(last, restarted.next(), "after a restart with the clock set back");
+        if (new IdGenerator(NODE, now::get).next() <= Integer.MAX_VALUE) {
+            throw new IllegalStateException("A new id does not compare above the legacy int ids");
+        }
+        System.out.println("✅ A clock stepping back never repeats or lowers an id");
+    }
+
+    /**
+     * {@code threads} threads take {@code ids} ids each; checks uniqueness,
+     * per-thread order, order across threads for ids taken under a lock, and
+     * the node. Returns the largest id.
+     */
+    private long race(ExecutorService pool, IdGenerator generator, String clock) throws Exception {
+        long[][] out = new long[threads][ids];
+        Object lock = new Object();
+        long[] lastLocked = { 0 };
+        CyclicBarrier start = new CyclicBarrier(threads);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long[] mine = out[t];
+            done.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < mine.length; i++) {
+                    if (i % 16 == 0) {
+                        synchronized (lock) {
+                            mine[i] = expectAbove(lastLocked[0], generator.next(), clock + ", in call order");
+                            lastLocked[0] = mine[i];
+                        }
+                    } else {
+                        mine[i] = generator.next();
+                    }
+                    if (i > 0) expectAbove(mine[i - 1], mine[i], clock + ", within one thread");
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : done) f.get(5, TimeUnit.MINUTES);
+
+        long[] all = new long[threads * ids];
+        for (int t = 0; t < threads; t++) System.arraycopy(out[t], 0, all, t * ids, ids);
+        Arrays.sort(all);
+        for (int i = 0; i < all.length; i++) {
+            if (i > 0 && all[i] == all[i - 1]) {
+                throw new IllegalStateException(clock + ": id " + all[i] + " was generated twice");
+            }
+            if (IdGenerator.nodeOf(all[i]) != NODE) {
+                throw new IllegalStateException(clock + ": id " + all[i] + " lost its node");
+            }
+        }
+        return all[all.length - 1];
+    }
+
+    private static long expectAbove(long previous, long id, String when) {
+        if (id <= previous) {
+            throw new IllegalStateException("Id " + id + " not above " + previous + " " + when);
+        }
+        return id;
+    }
+
+    private static IdGeneratorCheck parse(String[] args) {
+        IdGeneratorCheck c = new IdGeneratorCheck();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Expected --name=value: " + arg);
+            switch (kv[0]) {
+            case "threads" -> c.threads = Integer.parseInt(kv[1]);
+            case "ids" -> c.ids = Integer.parseInt(kv[1].replace("_", ""));
+            default -> throw new IllegalArgumentException("Unknown option: " + kv[0]);
+            }
+        }
+        return c;
+    }
+}
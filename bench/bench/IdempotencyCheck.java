@@ -0,0 +1,197 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import model.entity.IdempotencyKey;
+import model.entity.PostingResult;
+import model.enums.PostingStatus;
+import service.AccountEventListener;
+import service.BankServices;
+
+/**
+ * Concurrent duplicate-submission check for keyed postings: in every round,
+ * {@code --threads} threads are released together to submit the same request
+ * under the same {@link IdempotencyKey}. The money must move exactly once and
+ * every submitter must see the same outcome: the same balance, or the same
+ * exception, or for the status forms the same {@link PostingResult}. An
+ * {@link Error} thrown while the first submitter runs (here by a listener) is
+ * an outcome too: every duplicate must get it rather than wait forever. Also
+ * checks that a key reused for a different request is refused. Exits non-zero
+ * on failure.
+ *
+ * <pre>
+ * java -cp out bench.IdempotencyCheck --threads=16 --rounds=500
+ * </pre>
+ */
+public final class IdempotencyCheck {
+
+    private static final int ACCOUNTS = 10;
+    private static final long ERROR_AMOUNT = 7_777;      // deposits of this amount make the listener throw
+
+    private int threads = 16;
+    private int rounds = 500;
+
+    private IdempotencyCheck() {
+    }
+
+    /** One submission; returns what the caller would see. */
+    private interface Submission {
+        Object submit(IdempotencyKey key) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        IdempotencyCheck check = parse(args);
+        ExecutorService pool = Executors.newFixedThreadPool(check.threads);
+        try (BankServices bank = BankBenchmarks.populate(ACCOUNTS)) {
+            check.run(bank, pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void run(BankServices bank, ExecutorService pool) throws Exception {
+        int from = BankBenchmarks.FIRST_CUST_ID;
+        int to = BankBenchmarks.FIRST_CUST_ID + 1;
+        for (int round = 0; round < rounds; round++) {
+            long amount = 1 + ThreadLocalRandom.current().nextInt(10_000);
+            long fromBefore = balance(bank, from);
+            long toBefore = balance(bank, to);
+            switch (round % 6) {
+            case 0 -> {
+                once(pool, key -> bank.deposit(from, amount, key));
+                expectBalance(bank, from, fromBefore + amount);
+            }
+            case 1 -> {
+                once(pool, key -> bank.withdraw(from, amount, key));
+                expectBalance(bank, from, fromBefore - amount);
+            }
+            case 2 -> {
+                once(pool, key -> {
+                    bank.transfer(from, to, amount, key);
+                    return "transferred";
+                });
+                expectBalance(bank, from, fromBefore - amount);
+                expectBalance(bank, to, toBefore + amount);
+            }
+            case 3 -> {
+                // A decline is an outcome too: every duplicate gets the first attempt's exception
+                once(pool, key -> bank.withdraw(from, 2 * BankBenchmarks.OPENING_BALANCE, key));
+                expectBalance(bank, from, fromBefore);
+            }
+            case 4 -> {
+                Object result = once(pool, key -> bank.tryTransfer(from, to, amount, key));
+                expect(result, PostingResult.applied(fromBefore - amount));
+                expectBalance(bank, to, toBefore + amount);
+            }
+            default -> {
+                Object result = once(pool, key -> bank.tryWithdraw(from, 2 * BankBenchmarks.OPENING_BALANCE, key));
+                expect(result, PostingResult.declined(PostingStatus.INSUFFICIENT_FUNDS));
+                expectBalance(bank, from, fromBefore);
+            }
+            }
+        }
+
+        errorOutcome(bank, pool, from);
+
+        IdempotencyKey key = IdempotencyKey.random();
+        bank.deposit(from, 100, key);
+        refused(key, k -> bank.deposit(from, 200, k), "for a different amount");
+        refused(key, k -> bank.tryDeposit(from, 100, k), "by the status form");
+        System.out.printf("✅ %,d rounds of %d concurrent duplicates each posted exactly once with one outcome%n",
+                rounds, threads);
+    }
+
+    // The deposit is applied, then its event listener throws an Error from inside the keyed work
+    private void errorOutcome(BankServices bank, ExecutorService pool, int custId) throws Exception {
+        long before = balance(bank, custId);
+        AccountEventListener failing = event -> {
+            if (event.amount() == ERROR_AMOUNT) throw new AssertionError("Listener failed");
+        };
+        bank.addListener(failing);
+        try {
+            Object outcome = once(pool, key -> bank.deposit(custId, ERROR_AMOUNT, key));
+            if (!(outcome instanceof AssertionError)) {
+                throw new IllegalStateException("Expected the listener's Error as the outcome, got " + outcome);
+            }
+        } finally {
+            bank.removeListener(failing);
+        }
+        expectBalance(bank, custId, before + ERROR_AMOUNT);
+    }
+
+    // Releases every thread at once with the same fresh key and checks that all saw the same outcome
+    private Object once(ExecutorService pool, Submission submission) throws Exception {
+        IdempotencyKey key = IdempotencyKey.random();
+        CyclicBarrier start = new CyclicBarrier(threads);
+        List<Future<Object>> outcomes = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            outcomes.add(pool.submit(() -> {
+                start.await();
+                try {
+                    return submission.submit(key);
+                } catch (Exception | Error e) {
+                    return e;
+                }
+            }));
+        }
+        Object first = outcomes.get(0).get(1, TimeUnit.MINUTES);
+        for (Future<Object> f : outcomes) {
+            Object outcome = f.get(1, TimeUnit.MINUTES);
+            // Throwables are compared by identity: the first attempt's is rethrown to every duplicate
+            boolean same = first instanceof Throwable ? outcome == first : Objects.equals(outcome, first);
+            if (!same) {
+                throw new IllegalStateException("Duplicates saw different outcomes: " + first + " and " + outcome);
+            }
+        }
+        return first;
+    }
+
+    private static void expect(Object outcome, PostingResult expected) {
+        if (!expected.equals(outcome)) {
+            throw new IllegalStateException("Keyed status call returned " + outcome + ", expected " + expected);
+        }
+    }
+
+    private static void refused(IdempotencyKey key, Submission reuse, String how) throws Exception {
+        try {
+            reuse.submit(key);
+            throw new IllegalStateException("A key reused " + how + " was accepted");
+        } catch (IllegalArgumentException expected) {
+            // refused without posting
+        }
+    }
+
+    private static long balance(BankServices bank, int custId) throws Exception {
+        return bank.findById(custId).getCustAcc().getBalance();
+    }
+
+    private static void expectBalance(BankServices bank, int custId, long expected) throws Exception {
+        long actual = balance(bank, custId);
+        if (actual != expected) {
+            throw new IllegalStateException("Customer " + custId + " has " + actual + " paise, expected " + expected
+                    + ": a duplicate was posted or the request was lost");
+        }
+    }
+
+    private static IdempotencyCheck parse(String[] args) {
+        IdempotencyCheck c = new IdempotencyCheck();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Expected --name=value: " + arg);
+            switch (kv[0]) {
+            case "threads" -> c.threads = Integer.parseInt(kv[1]);
+            case "rounds" -> c.rounds = Integer.parseInt(kv[1].replace("_", ""));
+            default -> throw new IllegalArgumentException("Unknown option: " + kv[0]);
+            }
+        }
+        return c;
+    }
+}
@@ -0,0 +1,48 @@
+package bench;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import model.entity.SavingsAccount;
+import model.enums.AccountType;
+import util.Ifsc;
+
+/**
+ * IFSC validation as account construction used to do it (upper-case copy plus
+ * {@code String.matches}, which compiles the pattern on every call) versus the
+ * {@link Ifsc} scan-and-intern path, and full {@link SavingsAccount}
+ * construction on top of it. Codes are drawn from {@value #BRANCHES} branches.
+ */
+final class IfscBenchmarks {
+
+    private static final int BRANCHES = 4096;
+    private static final String[] BANKS = { "SBIN", "HDFC", "ICIC", "PUNB", "UTIB", "KKBK", "BARB", "CNRB" };
+    private static final String[] CODES = new String[BRANCHES];
+
+    static {
+        for (int i = 0; i < BRANCHES; i++) {
+            CODES[i] = String.format("%s0%06d", BANKS[i % BANKS.length], i);
+        }
+    }
+
+    private IfscBenchmarks() {
+    }
+
+    static void runAll(Harness h, int threads) throws InterruptedException {
+        Map<String, Object> params = Map.of("branches", BRANCHES);
+
+        h.measure("ifsc.regex", params, threads, rnd -> {
+            String code = code(rnd);
+            if (!code.toUpperCase().matches("[A-Z]{4}0[A-Z0-9]{6}")) throw new IllegalStateException(code);
+        });
+        h.measure("ifsc.scan", params, threads, rnd -> {
+            if (Ifsc.canonical(code(rnd)) == null) throw new IllegalStateException();
+        });
+        h.measure("accountCreate", params, threads, rnd -> new SavingsAccount(100_000 + rnd.nextInt(900_000),
+                code(rnd), BankBenchmarks.OPENING_BALANCE, AccountType.SAVINGS, 6.5));
+    }
+
+    private static String code(ThreadLocalRandom rnd) {
+        return CODES[rnd.nextInt(BRANCHES)];
+    }
+}
@@ -0,0 +1,225 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import server.BankServer;
+import service.BankServices;
+import util.LatencyHistogram;
+import util.VirtualThreads;
+
+/**
+ * Closed-loop load test of the {@link BankServer} line protocol: every
+ * connection sends one request, waits for the reply, and repeats. The mix is
+ * 50% LOOKUP, 30% DEPOSIT, 10% WITHDRAW and 10% TRANSFER on random accounts.
+ * Reports throughput and round-trip latency percentiles per connection count.
+ *
+ * <pre>
+ * java -cp out bench.LoadClient --connections=100,1000,5000 --accounts=10000 --time=10
+ * java -cp out bench.LoadClient --host=bank01 --port=7070 --connections=2000
+ * </pre>
+ *
+ * Without {@code --port} it starts an in-memory server in this JVM. Options:
+ * {@code --host}, {@code --port}, {@code --connections}, {@code --accounts},
+ * {@code --warmup} and {@code --time} (seconds), {@code --out} (JSON file).
+ */
+public final class LoadClient {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private String host = "localhost";
+    private int port;
+    private List<Integer> connections = List.of(100, 1_000);
+    private int accounts = 10_000;
+    private double warmupSeconds = 2;
+    private double measureSeconds = 5;
+    private Path out = Path.of("load-results.json");
+
+    private LoadClient() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadClient client = parse(args);
+        PrintStream console = System.out;
+        Harness harness = new Harness(0, 0, console);
+        BankServer embedded = null;
+        if (client.port == 0) {
+            // Keep the in-process bank's event-free paths free of console cost too
+            System.setOut(new PrintStream(OutputStream.nullOutputStream(), false, "UTF-8"));
+            embedded = BankServer.bind(new BankServices(), 0).start();
+            client.port = embedded.port();
+        }
+        try {
+            client.createAccounts();
+            for (int n : client.connections) {
+                client.run(harness, n);
+            }
+        } finally {
+            System.setOut(console);
+            if (embedded != null) embedded.close();
+        }
+        harness.writeJson(client.out);
+    }
+
+    /** Opens the accounts the load runs against; ones left by an earlier run are reused. */
+    private void createAccounts() throws IOException {
+        try (Connection c = new Connection(host, port)) {
+            for (int i = 0; i < accounts; i++) {
+                int custId = BankBenchmarks.FIRST_CUST_ID + i;
+                c.out.write("CREATE " + custId + ",Load Customer " + custId + "," + (BankBenchmarks.FIRST_ACC_NO + i)
+                        + ",PUNB0ABCDEF,1000000,SAVINGS,6.5,Pune,Maharashtra,411001\n");
+            }
+            c.out.flush();
+            for (int i = 0; i < accounts; i++) {
+                c.in.readLine();
+            }
+        }
+    }
+
+    private void run(Harness harness, int connectionCount) throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder requests = new LongAdder();
+        LongAdder errors = new LongAdder();
+        CountDownLatch connected = new CountDownLatch(connectionCount);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(connectionCount);
+        long measureNanos = (long) (measureSeconds * 1e9);
+        long[] start = new long[1];         // written before go opens, read after
+
+        ExecutorService workers = VirtualThreads.newPerTaskExecutor("load");
+        for (int i = 0; i < connectionCount; i++) {
+            workers.execute(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                try (Connection c = connect(connected)) {
+                    go.await();
+                    long from = start[0];
+                    long until = from + measureNanos;
+                    for (long sent = System.nanoTime(); sent < until; sent = System.nanoTime()) {
+                        String reply = c.call(request(rnd));
+                        if (sent >= from) {         // after the warmup
+                            latency.record(System.nanoTime() - sent);
+                            requests.increment();
+                            if (!reply.startsWith("OK")) errors.increment();
+                        }
+                    }
+                } catch (IOException e) {
+                    errors.increment();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        // The warmup starts once every connection is open
+        connected.await();
+        start[0] = System.nanoTime() + (long) (warmupSeconds * 1e9);
+        go.countDown();
+        done.await();
+        workers.shutdown();
+
+        double seconds = measureNanos / 1e9;
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("connections", connectionCount);
+        params.put("accounts", accounts);
+        params.put("virtualThreads", VirtualThreads.isAvailable());
+        harness.record("load.throughput", "thrpt", params, requests.sum() / seconds, "ops/s");
+        for (double p : PERCENTILES) {
+            harness.record("load.p" + (p == Math.rint(p) ? String.valueOf((int) p) : String.valueOf(p)), "sample",
+                    params, latency.valueAtPercentile(p) / 1e3, "us");
+        }
+        harness.record("load.max", "sample", params, latency.max() / 1e3, "us");
+        if (errors.sum() > 0) {
+            System.err.printf("%,d error replies or failed connections%n", errors.sum());
+        }
+    }
+
+    private Connection connect(CountDownLatch connected) throws IOException {
+        try {
+            return new Connection(host, port);
+        } finally {
+            connected.countDown();
+        }
+    }
+
+    private String request(ThreadLocalRandom rnd) {
+        int custId = BankBenchmarks.FIRST_CUST_ID + rnd.nextInt(accounts);
+        int roll = rnd.nextInt(10);
+        if (roll < 5) return "LOOKUP " + custId;
+        if (roll < 8) return "DEPOSIT " + custId + " " + (1 + rnd.nextInt(1_000));
+        if (roll < 9) return "WITHDRAW " + custId + " " + (1 + rnd.nextInt(10));
+        int to = BankBenchmarks.FIRST_CUST_ID + rnd.nextInt(accounts);
+        return "TRANSFER " + custId + " " + (to == custId ? to % accounts + 1 : to) + " 1";
+    }
+
+    private static final class Connection implements AutoCloseable {
+        final Socket socket;
+        final BufferedReader in;
+        final Writer out;
+
+        Connection(String host, int port) throws IOException {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        String call(String request) throws IOException {
+            out.write(request);
+            out.write('\n');
+            out.flush();
+            String reply = in.readLine();
+            if (reply == null) throw new IOException("Server closed the connection");
+            return reply;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private static LoadClient parse(String[] args) {
+        LoadClient c = new LoadClient();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Expected --name=value: " + arg);
+            switch (kv[0]) {
+            case "host" -> c.host = kv[1];
+            case "port" -> c.port = Integer.parseInt(kv[1]);
+            case "connections" -> c.connections = ints(kv[1]);
+            case "accounts" -> c.accounts = Integer.parseInt(kv[1].replace("_", ""));
+            case "warmup" -> c.warmupSeconds = Double.parseDouble(kv[1]);
+            case "time" -> c.measureSeconds = Double.parseDouble(kv[1]);
+            case "out" -> c.out = Path.of(kv[1]);
+            default -> throw new IllegalArgumentException("Unknown option: " + kv[0]);
+            }
+        }
+        return c;
+    }
+
+    private static List<Integer> ints(String csv) {
+        List<Integer> list = new ArrayList<>();
+        for (String s : csv.split(",")) {
+            list.add(Integer.parseInt(s.trim().replace("_", "")));
+        }
+        return list;
+    }
+}
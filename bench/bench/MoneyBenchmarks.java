@@ -0,0 +1,63 @@
+package bench;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+
+import util.Money;
+
+/**
+ * Compares the three money representations on a deposit/withdraw/interest loop:
+ * {@code double} rupees, {@code long} paise (what the accounts use) and {@code BigDecimal}.
+ * Single-threaded; each operation touches one of {@value #SLOTS} balances.
+ */
+final class MoneyBenchmarks {
+
+    private static final int SLOTS = 1024;
+    private static final long RATE_BPS = 650;
+
+    private static final double[] doubles = new double[SLOTS];
+    private static final long[] paise = new long[SLOTS];
+    private static final BigDecimal[] decimals = new BigDecimal[SLOTS];
+    private static final BigDecimal MONTHLY_RATE = BigDecimal.valueOf(RATE_BPS)
+            .divide(BigDecimal.valueOf(10_000L * 12), 20, RoundingMode.HALF_EVEN);
+
+    private MoneyBenchmarks() {
+    }
+
+    static void runAll(Harness h) throws InterruptedException {
+        for (int i = 0; i < SLOTS; i++) {
+            doubles[i] = 10_000.00;
+            paise[i] = 1_000_000L;
+            decimals[i] = new BigDecimal("10000.00");
+        }
+        Map<String, Object> params = Map.of("slots", SLOTS);
+
+        h.measure("money.double", params, 1, rnd -> {
+            int i = rnd.nextInt(SLOTS);
+            double amount = rnd.nextInt(1, 10_000) / 100.0;
+            doubles[i] += amount;
+            doubles[i] -= amount;
+            doubles[i] += doubles[i] * (RATE_BPS / 10_000.0) / 12;
+        });
+        h.measure("money.longPaise", params, 1, rnd -> {
+            int i = rnd.nextInt(SLOTS);
+            long amount = rnd.nextInt(1, 10_000);
+            paise[i] += amount;
+            paise[i] -= amount;
+            paise[i] += Money.mulDivHalfEven(paise[i], RATE_BPS, 10_000L * 12);
+        });
+        h.measure("money.bigDecimal", params, 1, rnd -> {
+            int i = rnd.nextInt(SLOTS);
+            BigDecimal amount = BigDecimal.valueOf(rnd.nextInt(1, 10_000), 2);
+            BigDecimal bal = decimals[i].add(amount).subtract(amount);
+            decimals[i] = bal.add(bal.multiply(MONTHLY_RATE).setScale(2, RoundingMode.HALF_EVEN));
+        });
+        // Interest compounds; reset so repeated runs start from the same state
+        for (int i = 0; i < SLOTS; i++) {
+            doubles[i] = 10_000.00;
+            paise[i] = 1_000_000L;
+            decimals[i] = new BigDecimal("10000.00");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import java.util.List;
+
+import model.entity.Address;
+import model.entity.Customer;
+import service.BankServices;
+
+/**
+ * Correctness check for partial-name search: matches, ranking, prefix-only
+ * short queries, names whose grams repeat (each customer must come back once),
+ * and removal on rename and delete. Exits non-zero on failure.
+ * {@code java -cp out bench.NameSearchCheck}
+ */
+public final class NameSearchCheck {
+
+    private static final String[] NAMES = { "Ravi Kumar", "ravi", "Kumar Ravi", "Aravind Rao", "Priya  Sharma",
+            "Ramesh", "Ra Vi", "Shravan", "Sachin Sharma", "Anna Ananya", "Sai Sai Sai" };
+
+    private NameSearchCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (BankServices bank = new BankServices()) {
+            Address addr = new Address("Pune", "Maharashtra", 411001);
+            for (int i = 0; i < NAMES.length; i++) {
+                Customer c = BankBenchmarks.newCustomer(BankBenchmarks.FIRST_CUST_ID + i,
+                        BankBenchmarks.FIRST_ACC_NO + i, addr);
+                c.setCustName(NAMES[i]);
+                bank.addCustomer(c);
+            }
+
+            expect(bank, "ravi", "ravi", "Ravi Kumar", "Kumar Ravi", "Aravind Rao");
+            expect(bank, "RA", "ravi", "Ra Vi", "Ramesh", "Ravi Kumar", "Kumar Ravi", "Aravind Rao");
+            expect(bank, "vi", "Ra Vi");
+            expect(bank, "priya sh", "Priya  Sharma");
+            expect(bank, "zz");
+            // Repeated grams: "s" starts two words, "ana" and "sai" occur twice or more
+            expect(bank, "s", "Shravan", "Sai Sai Sai", "Sachin Sharma", "Priya  Sharma");
+            expect(bank, "ana", "Anna Ananya");
+            expect(bank, "sai", "Sai Sai Sai");
+            expect(bank, "sharma", "Priya  Sharma", "Sachin Sharma");
+
+            bank.updateName(BankBenchmarks.FIRST_CUST_ID, "Mohan Das");
+            bank.deleteCustomer(BankBenchmarks.FIRST_CUST_ID + 1);
+            bank.updateName(BankBenchmarks.FIRST_CUST_ID + 10, "Tara Rao");
+            expect(bank, "ravi", "Kumar Ravi", "Aravind Rao");
+            expect(bank, "das", "Mohan Das");
+            expect(bank, "sai");
+            expect(bank, "rao", "Tara Rao", "Aravind Rao");
+        }
+        System.out.println("✅ Name search matches, ranks and returns each customer once");
+    }
+
+    private static void expect(BankServices bank, String query, String... names) {
+        List<String> found = bank.searchByName(query, 20).stream().map(Customer::getCustName).toList();
+        if (!found.equals(List.of(names))) {
+            throw new IllegalStateException("searchByName(\"" + query + "\") returned " + found + ", expected "
+                    + List.of(names));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.enums.PostingStatus;
+import service.BankServices;
+import service.PostingPipeline;
+import util.LatencyHistogram;
+
+/**
+ * Open-loop load on a {@link PostingPipeline}: producer threads publish at a
+ * fixed total rate (60% deposits, 20% withdrawals, 20% transfers on random
+ * accounts) without waiting for replies, and the pipeline's own
+ * publish-to-completion histogram gives the latency percentiles per rate.
+ * A rate the pipeline cannot sustain shows up as achieved throughput below
+ * the target and as latency growing with the backlog.
+ *
+ * <pre>
+ * java -cp out bench.PipelineBenchmark --rates=250000,1000000 --producers=2 --wait=BUSY_SPIN
+ * </pre>
+ *
+ * Options: {@code --rates} (commands/s), {@code --producers}, {@code --accounts},
+ * {@code --capacity} (ring size), {@code --wait} (BUSY_SPIN or YIELD), {@code --warmup}
+ * and {@code --time} (seconds), {@code --out} (JSON file).
+ */
+public final class PipelineBenchmark {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private List<Integer> rates = List.of(250_000, 1_000_000);
+    private int producers = 2;
+    private int accounts = 100_000;
+    private int capacity = 1 << 16;
+    private PostingPipeline.WaitStrategy wait = PostingPipeline.WaitStrategy.YIELD;
+    private double warmupSeconds = 2;
+    private double measureSeconds = 5;
+    private Path out = Path.of("pipeline-results.json");
+
+    private PipelineBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        PipelineBenchmark bench = parse(args);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), false, "UTF-8"));
+        Harness harness = new Harness(0, 0, console);
+        try (BankServices bank = BankBenchmarks.populate(bench.accounts)) {
+            for (int rate : bench.rates) {
+                bench.run(harness, bank, rate);
+                System.gc();
+            }
+        } finally {
+            System.setOut(console);
+        }
+        harness.writeJson(bench.out);
+    }
+
+    private void run(Harness harness, BankServices bank, int rate) throws Exception {
+        LongAdder published = new LongAdder();
+        CountDownLatch done = new CountDownLatch(producers);
+        long interval = Math.max(1, (long) (1e9 * producers / rate));
+        long start = System.nanoTime();
+        long measureFrom = start + (long) (warmupSeconds * 1e9);
+        long until = measureFrom + (long) (measureSeconds * 1e9);
+        List<CompletableFuture<PostingStatus>> last = new ArrayList<>();
+
+        try (PostingPipeline pipeline = new PostingPipeline(bank, capacity, wait)) {
+            for (int p = 0; p < producers; p++) {
+                CompletableFuture<PostingStatus> tail = new CompletableFuture<>();
+                last.add(tail);
+                Thread producer = new Thread(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    CompletableFuture<PostingStatus> f = CompletableFuture.completedFuture(PostingStatus.APPLIED);
+                    // Each command has a scheduled send time; falling behind sends the backlog at once
+                    for (long due = start; due < until; due += interval) {
+                        while (System.nanoTime() < due) Thread.onSpinWait();
+                        f = publish(pipeline, rnd);
+                        if (due >= measureFrom) published.increment();
+                    }
+                    f.whenComplete((status, e) -> tail.complete(status));
+                    done.countDown();
+                }, "producer-" + p);
+                producer.setDaemon(true);
+                producer.start();
+            }
+            // Latency of the warmup is not reported
+            Thread.sleep((long) (warmupSeconds * 1000));
+            pipeline.latency().reset();
+            done.await();
+            for (CompletableFuture<PostingStatus> tail : last) tail.join();
+            long elapsed = System.nanoTime() - measureFrom;
+            report(harness, rate, published.sum() / (elapsed / 1e9), pipeline.latency());
+        }
+    }
+
+    private CompletableFuture<PostingStatus> publish(PostingPipeline pipeline, ThreadLocalRandom rnd) {
+        int custId = BankBenchmarks.FIRST_CUST_ID + rnd.nextInt(accounts);
+        int roll = rnd.nextInt(10);
+        if (roll < 6) return pipeline.deposit(custId, 1 + rnd.nextInt(10_000));
+        if (roll < 8) return pipeline.withdraw(custId, 1 + rnd.nextInt(100));
+        int to = BankBenchmarks.FIRST_CUST_ID + rnd.nextInt(accounts);
+        return pipeline.transfer(custId, to == custId ? to % accounts + 1 : to, 1 + rnd.nextInt(100));
+    }
+
+    private void report(Harness harness, int rate, double achieved, LatencyHistogram latency) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("rate", rate);
+        params.put("producers", producers);
+        params.put("accounts", accounts);
+        params.put("wait", wait.name());
+        harness.record("pipeline.throughput", "thrpt", params, achieved, "ops/s");
+        for (double p : PERCENTILES) {
+            harness.record("pipeline.p" + (p == Math.rint(p) ? String.valueOf((int) p) : String.valueOf(p)),
+                    "sample", params, latency.valueAtPercentile(p) / 1e3, "us");
+        }
+        harness.record("pipeline.max", "sample", params, latency.max() / 1e3, "us");
+    }
+
+    private static PipelineBenchmark parse(String[] args) {
+        PipelineBenchmark b = new PipelineBenchmark();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Expected --name=value: " + arg);
+            switch (kv[0]) {
+            case "rates" -> b.rates = BankBenchmarks.Options.ints(kv[1]);
+            case "producers" -> b.producers = Integer.parseInt(kv[1]);
+            case "accounts" -> b.accounts = Integer.parseInt(kv[1].replace("_", ""));
+            case "capacity" -> b.capacity = Integer.parseInt(kv[1].replace("_", ""));
+            case "wait" -> b.wait = PostingPipeline.WaitStrategy.valueOf(kv[1].toUpperCase());
+            case "warmup" -> b.warmupSeconds = Double.parseDouble(kv[1]);
+            case "time" -> b.measureSeconds = Double.parseDouble(kv[1]);
+            case "out" -> b.out = Path.of(kv[1]);
+            default -> throw new IllegalArgumentException("Unknown option: " + kv[0]);
+            }
+        }
+        return b;
+    }
+}
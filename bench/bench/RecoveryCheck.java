@@ -0,0 +1,199 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import model.entity.Account;
+import model.entity.Address;
+import model.entity.Transaction;
+import persistence.Journal;
+import service.BankServices;
+
+/**
+ * Crash-recovery regression check for the write-ahead journal and snapshots.
+ * Each scenario builds a journaled bank, remembers its state (every balance
+ * and every account's transaction ids), damages the files the way a crash or
+ * a bad disk would, and restarts from them:
+ *
+ * <ol>
+ * <li>torn tail: the journal cut anywhere inside its last record, or followed
+ * by a partial header, recovers to the state before that record and is
+ * truncated back to the last intact one;</li>
+ * <li>CRC: a flipped payload byte or a corrupt length in the last record is
+ * rejected in the same way;</li>
+ * <li>fuzzy snapshot: snapshots taken while postings run, then a restart from
+ * a copy of the files, replays the journal tail on top of the snapshot,
+ * skipping by transaction id what the snapshot already holds, without
+ * losing or repeating a posting.</li>
+ * </ol>
+ *
+ * Exits non-zero on failure. {@code java -cp out bench.RecoveryCheck}
+ */
+public final class RecoveryCheck {
+
+    private static final int ACCOUNTS = 200;
+    private static final Address ADDR = new Address("Pune", "Maharashtra", 411001);
+
+    /** Everything recovery must reproduce, in custId order. */
+    private record State(List<Long> balances, List<List<Long>> transactionIds) {
+    }
+
+    private RecoveryCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("pinnacle-recovery");
+        try {
+            tornTailAndCrc(Files.createDirectory(dir.resolve("tail")));
+            fuzzySnapshot(Files.createDirectory(dir.resolve("snapshot")));
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    private static void tornTailAndCrc(Path dir) throws Exception {
+        Path journal = dir.resolve("journal.wal");
+        State before;
+        try (BankServices bank = new BankServices(Journal.open(journal, false))) {
+            populate(bank);
+            postRandomly(bank, 5_000);
+            before = stateOf(bank);
+        }
+        long intactSize = Files.size(journal);
+
+        // One more record, whose damage recovery must detect
+        State after;
+        try (BankServices bank = new BankServices(Journal.open(journal, false))) {
+            expect("full replay", before, stateOf(bank));
+            bank.deposit(BankBenchmarks.FIRST_CUST_ID, 12_345);
+            after = stateOf(bank);
+        }
+        byte[] full = Files.readAllBytes(journal);
+        int last = (int) intactSize;            // the last record: [length][kind][payload][crc]
+
+        for (int cut = last + 1; cut < full.length; cut += Math.max(1, (full.length - last) / 7)) {
+            recoverFrom(journal, Arrays.copyOf(full, cut), "journal cut at " + cut, before, intactSize);
+        }
+        byte[] partialHeader = Arrays.copyOf(full, full.length + 3);
+        partialHeader[full.length] = 0x7f;
+        recoverFrom(journal, partialHeader, "partial header after the last record", after, full.length);
+
+        byte[] flipped = full.clone();
+        flipped[last + 6] ^= 0x40;
+        recoverFrom(journal, flipped, "flipped payload byte", before, intactSize);
+        byte[] badLength = full.clone();
+        badLength[last] = 0x7f;
+        recoverFrom(journal, badLength, "corrupt record length", before, intactSize);
+        System.out.println("✅ Torn and corrupt journal tails recover to the last intact record");
+    }
+
+    private static void recoverFrom(Path journal, byte[] content, String damage, State expected, long expectedSize)
+            throws Exception {
+        Files.write(journal, content);
+        try (BankServices bank = new BankServices(Journal.open(journal, false))) {
+            expect(damage, expected, stateOf(bank));
+        }
+        if (Files.size(journal) != expectedSize) {
+            throw new IllegalStateException(damage + ": journal is " + Files.size(journal) + " bytes, expected "
+                    + expectedSize + " after truncation");
+        }
+    }
+
+    private static void fuzzySnapshot(Path dir) throws Exception {
+        Path live = Files.createDirectory(dir.resolve("live"));
+        Path crashed = dir.resolve("crashed");
+        State expected;
+        try (BankServices bank = new BankServices(Journal.open(live.resolve("journal.wal"), false),
+                live.resolve("snapshot.bin"))) {
+            populate(bank);
+            AtomicBoolean running = new AtomicBoolean(true);
+            Thread load = new Thread(() -> {
+                while (running.get()) postRandomly(bank, 100);
+            }, "recovery-load");
+            load.start();
+            for (int i = 0; i < 5; i++) {
+                postRandomly(bank, 1_000);
+                bank.takeSnapshot();
+            }
+            running.set(false);
+            load.join();
+            expected = stateOf(bank);
+            // Every posting so far was acknowledged, so it is in the journal file: this copy is a crash image
+            copyTree(live, crashed);
+        }
+        try (BankServices bank = new BankServices(Journal.open(crashed.resolve("journal.wal"), false),
+                crashed.resolve("snapshot.bin"))) {
+            expect("restart from a fuzzy snapshot", expected, stateOf(bank));
+        }
+        System.out.println("✅ Snapshot plus journal tail replays every posting exactly once");
+    }
+
+    private static void populate(BankServices bank) throws Exception {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            bank.addCustomer(BankBenchmarks.newCustomer(BankBenchmarks.FIRST_CUST_ID + i,
+                    BankBenchmarks.FIRST_ACC_NO + i, ADDR));
+        }
+    }
+
+    // Deposits, withdrawals and transfers; declines are expected and ignored
+    private static void postRandomly(BankServices bank, int count) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int k = 0; k < count; k++) {
+            int custId = BankBenchmarks.randomCustId(rnd, ACCOUNTS);
+            try {
+                switch (rnd.nextInt(3)) {
+                case 0 -> bank.deposit(custId, 1 + rnd.nextInt(10_000));
+                case 1 -> bank.withdraw(custId, 1 + rnd.nextInt(10_000));
+                default -> {
+                    int to = BankBenchmarks.randomCustId(rnd, ACCOUNTS);
+                    if (to != custId) bank.transfer(custId, to, 1 + rnd.nextInt(10_000));
+                }
+                }
+            } catch (Exception declined) {
+                // nothing was posted
+            }
+        }
+    }
+
+    private static void expect(String what, State expected, State actual) {
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException(what + ": recovered state differs from the state before the crash");
+        }
+    }
+
+    private static void copyTree(Path from, Path to) throws IOException {
+        try (Stream<Path> paths = Files.walk(from)) {
+            for (Path p : (Iterable<Path>) paths::iterator) {
+                Files.copy(p, to.resolve(from.relativize(p).toString()), StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private static State stateOf(BankServices bank) throws Exception {
+        List<Long> balances = new ArrayList<>();
+        List<List<Long>> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account acc = (Account) bank.findById(BankBenchmarks.FIRST_CUST_ID + i).getCustAcc();
+            balances.add(acc.getBalance());
+            ids.add(acc.getTransactions().stream().map(Transaction::getTransactionId).toList());
+        }
+        return new State(balances, ids);
+    }
+}
@@ -0,0 +1,75 @@
+package bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import model.entity.Address;
+import model.enums.PostingStatus;
+import service.ShardedBank;
+
+/**
+ * Postings per second through {@link ShardedBank} as the shard count grows.
+ * Each client call submits {@link #PIPELINE} commands and then waits for all
+ * of them, so the shard threads, not the round trips, are the limit. Compare
+ * with the {@code deposit} and {@code transfer} results for the shared
+ * BankServices. Run with {@code --filter=sharded --shards=1,2,4,8 --threads=8}
+ * on a machine with at least as many cores as shards plus client threads.
+ */
+final class ShardBenchmarks {
+
+    static final int PIPELINE = 64;
+
+    private ShardBenchmarks() {
+    }
+
+    static void runAll(Harness h, int accounts, List<Integer> shardCounts, List<Integer> threadCounts)
+            throws Exception {
+        for (int shards : shardCounts) {
+            try (ShardedBank bank = populate(accounts, shards)) {
+                Map<String, Object> params = Map.of("accounts", accounts, "shards", shards);
+                for (int threads : threadCounts) {
+                    h.measure("sharded.deposit", params, threads, PIPELINE, rnd -> {
+                        CompletableFuture<?>[] pending = new CompletableFuture<?>[PIPELINE];
+                        for (int i = 0; i < PIPELINE; i++) {
+                            pending[i] = bank.deposit(BankBenchmarks.FIRST_ACC_NO + rnd.nextInt(accounts),
+                                    1 + rnd.nextInt(10_000));
+                        }
+                        for (CompletableFuture<?> f : pending) f.join();
+                    });
+                    if (accounts > 1) {
+                        h.measure("sharded.transfer", params, threads, PIPELINE, rnd -> {
+                            CompletableFuture<?>[] pending = new CompletableFuture<?>[PIPELINE];
+                            for (int i = 0; i < PIPELINE; i++) {
+                                int from = BankBenchmarks.FIRST_ACC_NO + rnd.nextInt(accounts);
+                                int to = BankBenchmarks.FIRST_ACC_NO + rnd.nextInt(accounts - 1);
+                                if (to >= from) to++;
+                                pending[i] = bank.transfer(from, to, 1 + rnd.nextInt(100));
+                            }
+                            for (CompletableFuture<?> f : pending) f.join();
+                        });
+                    }
+                }
+            }
+            System.gc();
+        }
+    }
+
+    private static ShardedBank populate(int accounts, int shards) throws Exception {
+        ShardedBank bank = new ShardedBank(shards);
+        Address addr = new Address("Pune", "Maharashtra", 411001);
+        CompletableFuture<Boolean> last = null;
+        for (int i = 0; i < accounts; i++) {
+            last = bank.addCustomer(BankBenchmarks.newCustomer(BankBenchmarks.FIRST_CUST_ID + i,
+                    BankBenchmarks.FIRST_ACC_NO + i, addr));
+        }
+        if (last != null) last.join();
+        // Shards finish their queues independently; a no-op posting on each waits out the rest
+        for (int s = 0; s < shards && s < accounts; s++) {
+            if (bank.deposit(BankBenchmarks.FIRST_ACC_NO + s, 1).join() != PostingStatus.APPLIED) {
+                throw new IllegalStateException("Populating shard " + s + " failed");
+            }
+        }
+        return bank;
+    }
+}
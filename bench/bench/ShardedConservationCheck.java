@@ -0,0 +1,151 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.entity.Address;
+import model.entity.DebitLimits;
+import model.enums.AccountType;
+import model.enums.PostingStatus;
+import service.ShardedBank;
+import util.BankConstants;
+
+/**
+ * {@link ConservationCheck} for {@link ShardedBank}: {@code --threads} client
+ * threads send random deposits, withdrawals and transfers (most of them
+ * crossing shards) to a small set of accounts, keeping up to
+ * {@link ShardBenchmarks#PIPELINE} commands outstanding each. Every applied
+ * deposit and withdrawal is added to the expected net change. Once every
+ * future has completed no transfer may be in flight, the total balance must
+ * be exactly what it was before plus that change, and every account must
+ * still hold at least the minimum balance. A lost transfer step shows up as
+ * the run not finishing within the timeout. Exits non-zero on failure.
+ *
+ * <pre>
+ * java -cp out bench.ShardedConservationCheck --shards=4 --threads=8 --accounts=50 --operations=250000
+ * </pre>
+ */
+public final class ShardedConservationCheck {
+
+    private int shards = 4;
+    private int threads = 8;
+    private int accounts = 50;
+    private int operations = 250_000;   // per thread
+
+    private ShardedConservationCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ShardedConservationCheck check = parse(args);
+        try (ShardedBank bank = check.populate()) {
+            check.run(bank);
+        }
+    }
+
+    private void run(ShardedBank bank) throws Exception {
+        // Without limits most transfers are applied rather than declined, so most cross shards both ways
+        DebitLimits unlimited = new DebitLimits(DebitLimits.MAX_DAILY, DebitLimits.MAX_DAILY, DebitLimits.UNLIMITED_RATE);
+        for (AccountType type : AccountType.values()) bank.setDebitLimits(type, unlimited);
+        long before = bank.totalBalance();
+        LongAdder applied = new LongAdder();
+        LongAdder netChange = new LongAdder();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            done.add(pool.submit(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                List<CompletableFuture<PostingStatus>> pending = new ArrayList<>(ShardBenchmarks.PIPELINE);
+                for (int k = 0; k < operations; k++) {
+                    int from = BankBenchmarks.FIRST_ACC_NO + rnd.nextInt(accounts);
+                    long amount = 1 + rnd.nextInt(50_000);
+                    CompletableFuture<PostingStatus> posting = switch (rnd.nextInt(4)) {
+                    case 0 -> bank.deposit(from, amount).thenApply(s -> count(s, amount, netChange));
+                    case 1 -> bank.withdraw(from, amount).thenApply(s -> count(s, -amount, netChange));
+                    default -> {
+                        int to = BankBenchmarks.FIRST_ACC_NO + rnd.nextInt(accounts);
+                        yield to == from ? null : bank.transfer(from, to, amount);
+                    }
+                    };
+                    if (posting == null) continue;
+                    pending.add(posting);
+                    if (pending.size() == ShardBenchmarks.PIPELINE) await(pending, applied);
+                }
+                await(pending, applied);
+                return null;
+            }));
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Postings did not finish: a transfer step lost?");
+        }
+        for (Future<?> f : done) f.get();
+
+        if (bank.transfersInFlight() != 0) {
+            throw new IllegalStateException(bank.transfersInFlight() + " transfers in flight after every future completed");
+        }
+        long after = bank.totalBalance();
+        long expected = before + netChange.sum();
+        if (after != expected) {
+            throw new IllegalStateException("Total balance is " + after + " paise, expected " + expected + " ("
+                    + before + " before, net change " + netChange.sum() + ")");
+        }
+        for (int i = 0; i < accounts; i++) {
+            int accNo = BankBenchmarks.FIRST_ACC_NO + i;
+            if (bank.getBalance(accNo) < BankConstants.MIN_BALANCE) {
+                throw new IllegalStateException("Below minimum balance: " + bank.findByAccNo(accNo));
+            }
+        }
+        System.out.printf("✅ %,d of %,d postings applied on %d shards from %d threads, total balance %,d paise as"
+                + " expected%n", applied.sum(), (long) threads * operations, shards, threads, after);
+    }
+
+    // Runs on the shard thread that completed the posting, before the client sees it
+    private static PostingStatus count(PostingStatus status, long amount, LongAdder netChange) {
+        if (status == PostingStatus.APPLIED) netChange.add(amount);
+        return status;
+    }
+
+    private static void await(List<CompletableFuture<PostingStatus>> pending, LongAdder applied) {
+        for (CompletableFuture<PostingStatus> f : pending) {
+            if (f.join() == PostingStatus.APPLIED) applied.increment();
+        }
+        pending.clear();
+    }
+
+    private ShardedBank populate() throws Exception {
+        ShardedBank bank = new ShardedBank(shards);
+        Address addr = new Address("Pune", "Maharashtra", 411001);
+        List<CompletableFuture<Boolean>> added = new ArrayList<>();
+        for (int i = 0; i < accounts; i++) {
+            added.add(bank.addCustomer(BankBenchmarks.newCustomer(BankBenchmarks.FIRST_CUST_ID + i,
+                    BankBenchmarks.FIRST_ACC_NO + i, addr)));
+        }
+        for (CompletableFuture<Boolean> f : added) {
+            if (!f.join()) throw new IllegalStateException("Populating the shards failed");
+        }
+        return bank;
+    }
+
+    private static ShardedConservationCheck parse(String[] args) {
+        ShardedConservationCheck c = new ShardedConservationCheck();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("Expected --name=value: " + arg);
+            switch (kv[0]) {
+            case "shards" -> c.shards = Integer.parseInt(kv[1]);
+            case "threads" -> c.threads = Integer.parseInt(kv[1]);
+            case "accounts" -> c.accounts = Integer.parseInt(kv[1].replace("_", ""));
+            case "operations" -> c.operations = Integer.parseInt(kv[1].replace("_", ""));
+            default -> throw new IllegalArgumentException("Unknown option: " + kv[0]);
+            }
+        }
+        return c;
+    }
+}
@@ -0,0 +1,88 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import model.entity.Address;
+import persistence.Journal;
+import service.BankServices;
+
+/**
+ * Restart time with and without a snapshot. For each account count it builds a
+ * journaled bank (one deposit per account after opening), snapshots it, then
+ * times recovery from the full journal versus snapshot plus empty tail.
+ *
+ * <pre>
+ * java -Xmx16g -cp out bench.StartupBenchmark --accounts=1000000,10000000 --out=startup.json
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BankBenchmarks.Options opts = BankBenchmarks.Options.parse(args);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), false, "UTF-8"));
+        Harness harness = new Harness(0, 0, console);
+        try {
+            for (int accounts : opts.accounts) {
+                run(harness, accounts);
+            }
+        } finally {
+            System.setOut(console);
+        }
+        harness.writeJson(opts.out);
+    }
+
+    private static void run(Harness harness, int accounts) throws Exception {
+        Path dir = Files.createTempDirectory("pinnacle-startup");
+        Path journalFile = dir.resolve("journal.wal");
+        Path snapshotFile = dir.resolve("snapshot.bin");
+        Map<String, Object> params = Map.of("accounts", accounts);
+
+        try (BankServices bank = new BankServices(Journal.open(journalFile, false))) {
+            Address addr = new Address("Pune", "Maharashtra", 411001);
+            // Parallel so group commit batches the per-call durability waits
+            IntStream.range(0, accounts).parallel().forEach(i -> {
+                try {
+                    bank.addCustomer(BankBenchmarks.newCustomer(BankBenchmarks.FIRST_CUST_ID + i,
+                            BankBenchmarks.FIRST_ACC_NO + i, addr));
+                    bank.deposit(BankBenchmarks.FIRST_CUST_ID + i, 10_000);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        try (BankServices bank = new BankServices(Journal.open(journalFile, false), snapshotFile)) {
+            harness.recordSingleShot("startup.journalReplay", params, System.nanoTime() - start);
+            verify(bank, accounts);
+            // closing writes the snapshot used by the next run
+        }
+        System.gc();
+
+        start = System.nanoTime();
+        try (BankServices bank = new BankServices(Journal.open(journalFile, false), snapshotFile)) {
+            harness.recordSingleShot("startup.snapshot", params, System.nanoTime() - start);
+            verify(bank, accounts);
+        }
+
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(dir);
+        System.gc();
+    }
+
+    private static void verify(BankServices bank, int accounts) {
+        if (bank.getCustomerCount() != accounts) {
+            throw new IllegalStateException("Recovered " + bank.getCustomerCount() + " of " + accounts + " customers");
+        }
+    }
+}
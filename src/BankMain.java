@@ -1,17 +1,39 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Scanner;
+import javax.management.JMException;
+import persistence.Journal;
+import server.BankServer;
 import service.BankServices;
+import service.CustomerImporter;
+import service.InterestReport;
 import ui.InputHandler;
+import util.VirtualThreads;
 
+/**
+ * Console entry point. Pass {@code --data-dir=DIR} to keep a durable journal in
+ * DIR and recover from it on start; without it everything lives in memory.
+ * {@code --import=FILE.csv} bulk-loads customers before the menu starts.
+ * {@code --serve=PORT} runs the TCP front end ({@link BankServer}) instead of the menu.
+ * Operation metrics are exported over JMX as {@value service.OperationMetrics#OBJECT_NAME}.
+ */
 public class BankMain {
-	public static void main(String[] args) {
+	private static final long SNAPSHOT_INTERVAL_SECONDS = 300;
+
+	public static void main(String[] args) throws IOException {
 		Scanner sc = new Scanner(System.in);
-		BankServices bank = new BankServices();
+		BankServices bank = openBank(args);
+		registerMetrics(bank);
+		importCsv(bank, args);
+		if (serve(bank, args)) return;
 		InputHandler input = new InputHandler(sc);
+		bank.addListener(input);
 
 		String cont;
 		do {
 			showMenu();
-			int choice = input.getInt("Choose (0-8): ", 0, 8);
+			int choice = input.getInt("Choose (0-9): ", 0, 9);
 
 			try {
 				switch (choice) {
@@ -22,8 +44,9 @@ public class BankMain {
 				case 4 -> input.transaction(bank);
 				case 5 -> input.update(bank);
 				case 6 -> input.delete(bank);
-				case 7 -> bank.addInterestToAllAccounts();
+				case 7 -> printInterestReport(bank.addInterestToAllAccounts());
 				case 8 -> input.statement(bank);
+				case 9 -> printMetrics(bank);
 				default -> System.out.println("Invalid choice!");
 				}
 			} catch (Exception e) {
@@ -34,9 +57,92 @@ public class BankMain {
 		} while ("yes".equalsIgnoreCase(cont));
 
 		sc.close();
+		bank.close();
 		System.out.println("--------------------Thank You--------------------");
 	}
 
+	private static BankServices openBank(String[] args) throws IOException {
+		for (String arg : args) {
+			if (arg.startsWith("--data-dir=")) {
+				Path dir = Path.of(arg.substring("--data-dir=".length()));
+				Files.createDirectories(dir);
+				BankServices bank = new BankServices(Journal.open(dir.resolve("journal.wal"), true),
+						dir.resolve("snapshot.bin"));
+				bank.startSnapshots(SNAPSHOT_INTERVAL_SECONDS);
+				System.out.println("📂 Recovered " + bank.getCustomerCount() + " customers from " + dir);
+				return bank;
+			}
+		}
+		return new BankServices();
+	}
+
+	private static void importCsv(BankServices bank, String[] args) throws IOException {
+		for (String arg : args) {
+			if (arg.startsWith("--import=")) {
+				Path csv = Path.of(arg.substring("--import=".length()));
+				Path rejects = csv.resolveSibling(csv.getFileName() + ".rejects.csv");
+				CustomerImporter.Report report = new CustomerImporter(bank).importCsv(csv, rejects);
+				System.out.println("📥 Imported " + report.imported() + " customers from " + csv);
+				if (report.rejected() > 0) {
+					System.out.println("⚠️ " + report.rejected() + " lines rejected, see " + rejects);
+				}
+			}
+		}
+	}
+
+	// Blocks serving connections until the process is stopped; the hook then closes the bank
+	private static boolean serve(BankServices bank, String[] args) throws IOException {
+		for (String arg : args) {
+			if (arg.startsWith("--serve=")) {
+				BankServer server = BankServer.bind(bank, Integer.parseInt(arg.substring("--serve=".length())));
+				Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+					try {
+						server.close();
+						bank.close();
+					} catch (IOException e) {
+						System.out.println("⚠️ Shutdown failed: " + e.getMessage());
+					}
+				}, "bank-shutdown"));
+				System.out.println("🌐 Serving on port " + server.port() + (VirtualThreads.isAvailable()
+						? " (virtual threads)" : " (platform threads)"));
+				server.serve();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Also visible in JConsole under pinnacle.bank
+	private static void registerMetrics(BankServices bank) {
+		try {
+			bank.getOperationMetrics().registerMBean();
+		} catch (JMException e) {
+			System.out.println("⚠️ Metrics not exported over JMX: " + e.getMessage());
+		}
+	}
+
+	private static void printMetrics(BankServices bank) {
+		System.out.println("\n=== OPERATION METRICS ===");
+		String table = bank.getOperationMetrics().dump();
+		System.out.print(table.lines().count() > 1 ? table : "No operations yet\n");
+	}
+
+	private static void printInterestReport(InterestReport report) {
+		System.out.println("\n=== INTEREST " + report.period() + " ===");
+		System.out.println("✅ Credited " + report.credited() + " of " + report.accounts() + " accounts, total ₹"
+				+ report.totalCredited().formatGrouped());
+		if (report.skipped() > 0) {
+			System.out.println("Skipped " + report.skipped()
+					+ " (nothing due, already credited this month or closed during the run)");
+		}
+		for (InterestReport.Failure f : report.failures()) {
+			System.out.println("⚠️ Interest failed for A/c " + f.accNo() + ": " + f.reason());
+		}
+		if (report.failed() > report.failures().size()) {
+			System.out.println("⚠️ ... " + (report.failed() - report.failures().size()) + " more failures");
+		}
+	}
+
 	private static void showMenu() {
 		System.out.println("""
 				---------------------Main Menu--------------------
@@ -44,7 +150,7 @@ public class BankMain {
 				2:Display All         3:Search Account
 				4:Transaction         5:Update
 				6:Delete              7:Interest
-				8:Statement
+				8:Statement           9:Metrics
 				-----------------------------------------------""");
 	}
 
@@ -1,10 +1,12 @@
 package exceptions;
 
-public class DailyLimitExceededException extends Exception{
+import util.Money;
+
+public class DailyLimitExceededException extends LimitExceededException {
 	
-	public DailyLimitExceededException()
+	public DailyLimitExceededException(long dailyLimit)
 	{
-		super("Daily Transation Linit is ₹50,000 exceeded");
+		super("Daily transaction limit of ₹" + Money.formatGrouped(dailyLimit) + " exceeded");
 	}
 
 }
@@ -1,15 +1,17 @@
 package exceptions;
 
+import util.Money;
+
 public class InsufficientFundsException extends Exception{
 	
-	private double attemptedAmount;
-	private double availableBalance;
+	private long attemptedAmount;
+	private long availableBalance;
 	
-	public InsufficientFundsException(double attempted, double balance)
+	public InsufficientFundsException(long attempted, long balance)
 	{
 		
 		super("Insufficient funds! Attempted: ₹" + 
-	              String.format("%.2f", attempted) + ", Available: ₹" + String.format("%.2f", balance));
+	              Money.format(attempted) + ", Available: ₹" + Money.format(balance));
 		
 		this.attemptedAmount = attempted;
 		this.availableBalance = balance;
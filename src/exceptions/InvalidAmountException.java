@@ -1,9 +1,11 @@
 package exceptions;
 
+import util.Money;
+
 public class InvalidAmountException extends Exception{
 
-	public InvalidAmountException(double amount) {
-		super("Invalid Amount :"+ amount + ". Must be > 0");
+	public InvalidAmountException(long amount) {
+		super("Invalid Amount :"+ Money.format(amount) + ". Must be > 0");
 	}
 	
 	
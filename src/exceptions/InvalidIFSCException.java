@@ -4,6 +4,6 @@ public class InvalidIFSCException extends Exception
 {
 	public InvalidIFSCException(String ifsc)
 	{
-		super("Invalid IFSC :"+ifsc +". Format : [A-Z]{4}0[A-Z]{6}");
+		super("Invalid IFSC :"+ifsc +". Format : [A-Z]{4}0[A-Z0-9]{6}");
 	}
 }
@@ -0,0 +1,12 @@
+package exceptions;
+
+/**
+ * A debit broke one of the account's {@link model.entity.DebitLimits}.
+ */
+public class LimitExceededException extends Exception {
+
+	public LimitExceededException(String message)
+	{
+		super(message);
+	}
+}
@@ -1,9 +1,11 @@
 package exceptions;
 
+import util.Money;
+
 public class MinimumBalanceException extends Exception {
 	
-	public MinimumBalanceException(double accbalance)
+	public MinimumBalanceException(long accbalance)
 	{
-		super("Minimum Balance > 1000  required.Current Balance : ₹ "+String.format("%.2f",accbalance));
+		super("Minimum Balance > "+Money.format(util.BankConstants.MIN_BALANCE)+" required.Current Balance : ₹ "+Money.format(accbalance));
 	}
 }
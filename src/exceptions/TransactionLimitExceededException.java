@@ -0,0 +1,12 @@
+package exceptions;
+
+import util.Money;
+
+public class TransactionLimitExceededException extends LimitExceededException {
+
+	public TransactionLimitExceededException(long amount, long perTransactionLimit)
+	{
+		super("Amount ₹" + Money.formatGrouped(amount) + " is above the per-transaction limit of ₹"
+				+ Money.formatGrouped(perTransactionLimit));
+	}
+}
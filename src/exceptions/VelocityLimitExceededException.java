@@ -0,0 +1,9 @@
+package exceptions;
+
+public class VelocityLimitExceededException extends LimitExceededException {
+
+	public VelocityLimitExceededException(int perMinute)
+	{
+		super("Too many debits: at most " + perMinute + " per minute");
+	}
+}
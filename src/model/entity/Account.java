@@ -1,47 +1,65 @@
 package model.entity;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 import exceptions.DailyLimitExceededException;
 import exceptions.InsufficientFundsException;
 import exceptions.InvalidAmountException;
 import exceptions.InvalidIFSCException;
+import exceptions.LimitExceededException;
 import exceptions.MinimumBalanceException;
+import exceptions.TransactionLimitExceededException;
+import exceptions.VelocityLimitExceededException;
 import model.enums.AccountType;
+import model.enums.PostingStatus;
 import model.enums.TransactionType;
+import util.BankConstants;
+import util.EpochClock;
+import util.Ifsc;
+import util.Money;
 
 /**
  * Abstract base class for all bank accounts.
  * Provides common functionality: deposit, withdraw, transactions, interest.
+ * All mutations are guarded by the account's own monitor, so callers that need
+ * to span several accounts (e.g. transfers) can synchronize on them directly.
  */
 public abstract class Account implements BankAccount {
 
 	// 1. Fields (private, final first)
 	private final int accNo;
 	private final String ifscCode;
-	private double balance;
+	private volatile long balance;
 	private final AccountType accType;
-	private final List<Transaction> transactions = new ArrayList<>();
+	private final TransactionHistory transactions;
 
-	private double todayDebitTotal = 0.0;
-	private java.time.LocalDate lastDebitDate = java.time.LocalDate.now();
-	private static final double DAILY_LIMIT = 50000.0;
+	private final DebitCounters debits = new DebitCounters();
+	private LimitPolicy limitPolicy;        // null until attached: DebitLimits.DEFAULT on the system clock
+	private DebitLimits debitLimits;        // null: the policy's limits for accType
+	private HistoryArchive archive;         // null until attached
+	private BalanceObserver observer;       // null until attached
+	private YearMonth lastInterestPeriod;    // null until the first interest run
 
 	// 2. Constructor
-	public Account(int accNo, String ifscCode, double balance, AccountType accType)
+	public Account(int accNo, String ifscCode, long balance, AccountType accType)
 			throws InvalidIFSCException, MinimumBalanceException{
 
-		if (!ifscCode.toUpperCase().matches("[A-Z]{4}0[A-Z]{6}")){
+		String canonicalIfsc = Ifsc.canonical(ifscCode);
+		if (canonicalIfsc == null) {
 		    throw new InvalidIFSCException(ifscCode);
 		}
 
 		this.accNo = accNo;
-		this.ifscCode = ifscCode.toUpperCase();
-		if (balance < util.BankConstants.MIN_BALANCE) {
+		this.transactions = new TransactionHistory(accNo);
+		this.ifscCode = canonicalIfsc;    // shared by every account of the branch
+		if (balance < BankConstants.MIN_BALANCE) {
 			throw new MinimumBalanceException(balance);
 		}
-		this.balance = Math.max(0, balance);
+		this.balance = balance;
 		this.accType = accType;
 	}
 
@@ -52,43 +70,115 @@ public abstract class Account implements BankAccount {
 	}
 
 	@Override
-	public double getBalance() {
+	public long getBalance() {
 		return balance;
 	}
 
 	@Override
-	public void deposit(double amount) throws InvalidAmountException {
-	    if (amount <= 0) throw new InvalidAmountException(amount);
-	    
-	    balance += amount;
-	    transactions.add(new Transaction(TransactionType.DEPOSIT, amount, balance, 
-	        "Deposit to A/c " + accNo));
-	    System.out.println("✅ Deposited ₹" + String.format("%.2f", amount));
+	public synchronized void deposit(long amount) throws InvalidAmountException {
+		PostingStatus status = tryDeposit(amount);
+		if (status == PostingStatus.INVALID_AMOUNT) throw new InvalidAmountException(amount);
+		if (status != PostingStatus.APPLIED) throw new ArithmeticException("long overflow");
 	}
 
 	@Override
-	public void withdraw(double amount) throws InvalidAmountException, 
-	InsufficientFundsException, DailyLimitExceededException, MinimumBalanceException {
-
-		if (amount <= 0) 
-			throw new InvalidAmountException(amount);
+	public synchronized void withdraw(long amount) throws InvalidAmountException, 
+	InsufficientFundsException, LimitExceededException, MinimumBalanceException {
+		PostingStatus status = tryWithdraw(amount);
+		if (status != PostingStatus.APPLIED) throwDeclined(status, amount);
+	}
 
-		if (balance < amount) 
-			throw new InsufficientFundsException(amount, balance);
+	/**
+	 * Moves {@code amount} from this account to {@code to} as one posting:
+	 * a TRANSFER_OUT row here and a TRANSFER_IN row there, sharing one
+	 * transaction id. Both sides are checked before either balance changes, so
+	 * a failure leaves both accounts untouched. The caller must hold both
+	 * monitors, taken in a fixed order (e.g. by accNo) to avoid deadlock.
+	 *
+	 * @throws ArithmeticException if the credit would overflow {@code to}'s balance
+	 */
+	public void transferTo(Account to, long amount) throws InvalidAmountException, InsufficientFundsException,
+			LimitExceededException, MinimumBalanceException {
+		PostingStatus status = tryTransferTo(to, amount);
+		if (status != PostingStatus.APPLIED) throwDeclined(status, amount);
+	}
 
-		double newBalance = balance - amount;
-		if (newBalance < util.BankConstants.MIN_BALANCE) {
-			throw new MinimumBalanceException(newBalance);
+	/** {@link #transferTo} reporting the outcome instead of throwing; the same monitors must be held. */
+	public PostingStatus tryTransferTo(Account to, long amount) {
+		if (!Thread.holdsLock(this) || !Thread.holdsLock(to)) {
+			throw new IllegalStateException("Both account monitors must be held for a transfer");
 		}
+		if (to == this) throw new IllegalArgumentException("Cannot transfer to same account");
+
+		if (amount > 0 && to.balance > Long.MAX_VALUE - amount) return PostingStatus.FAILED;
+		PostingStatus status = reserveDebit(amount);
+		if (status != PostingStatus.APPLIED) return status;
+		postTransfer(to, amount, balance - amount, to.balance + amount);
+		return PostingStatus.APPLIED;
+	}
+
+	/** FAILED if the credit would overflow the balance. */
+	@Override
+	public synchronized PostingStatus tryDeposit(long amount) {
+		if (amount <= 0) return PostingStatus.INVALID_AMOUNT;
+		if (balance > Long.MAX_VALUE - amount) return PostingStatus.FAILED;
+		long newBalance = balance + amount;
+		transactions.add(new Transaction(TransactionType.DEPOSIT, amount, newBalance,
+				"Deposit to A/c " + accNo));
+		setBalance(newBalance);
+		return PostingStatus.APPLIED;
+	}
 
-		checkDailyLimit(amount);
+	@Override
+	public synchronized PostingStatus tryWithdraw(long amount) {
+		PostingStatus status = reserveDebit(amount);
+		if (status != PostingStatus.APPLIED) return status;
 
-		// ✅ Apply withdrawal
-		balance = newBalance;  // Use calculated value
-		todayDebitTotal += amount;
-		transactions.add(new Transaction(TransactionType.TRANSFER_OUT, amount, balance,
+		long newBalance = balance - amount;
+		transactions.add(new Transaction(TransactionType.WITHDRAWAL, amount, newBalance,
 				"Withdrawal from A/c " + accNo));
-		System.out.println("✅ Withdrew ₹" + String.format("%.2f", amount));
+		setBalance(newBalance);
+		return PostingStatus.APPLIED;
+	}
+
+	/**
+	 * Debit half of a transfer whose credit is posted separately with
+	 * {@link #tryTransferIn}, e.g. by another thread that owns the receiving
+	 * account. Runs this side's checks and writes the TRANSFER_OUT row; the
+	 * credit takes that row's id (see {@link #getLastTransaction()}).
+	 */
+	public synchronized PostingStatus tryTransferOut(int toAccNo, long amount) {
+		PostingStatus status = reserveDebit(amount);
+		if (status != PostingStatus.APPLIED) return status;
+
+		long newBalance = balance - amount;
+		transactions.add(Transaction.withId(Transaction.allocateId(), TransactionType.TRANSFER_OUT, amount,
+				newBalance, "Transfer to A/c " + toAccNo));
+		setBalance(newBalance);
+		return PostingStatus.APPLIED;
+	}
+
+	/** Credit half of a split transfer: a TRANSFER_IN row under the debit's {@code transferId}. */
+	public synchronized PostingStatus tryTransferIn(long transferId, int fromAccNo, long amount) {
+		if (amount <= 0) return PostingStatus.INVALID_AMOUNT;
+		if (balance > Long.MAX_VALUE - amount) return PostingStatus.FAILED;
+
+		long newBalance = balance + amount;
+		transactions.add(Transaction.withId(transferId, TransactionType.TRANSFER_IN, amount, newBalance,
+				"Transfer from A/c " + fromAccNo));
+		setBalance(newBalance);
+		return PostingStatus.APPLIED;
+	}
+
+	/**
+	 * Gives back a {@link #tryTransferOut} whose credit could not be posted.
+	 * The debit stays counted against today's limits.
+	 */
+	public synchronized void reverseTransferOut(int toAccNo, long amount) {
+		long newBalance = Math.addExact(balance, amount);
+		transactions.add(new Transaction(TransactionType.TRANSFER_IN, amount, newBalance,
+				"Reversal of transfer to A/c " + toAccNo));
+		setBalance(newBalance);
 	}
 
 	// 4. Getters/Setters (Business fields)
@@ -100,67 +190,252 @@ public abstract class Account implements BankAccount {
 		return accType;
 	}
 
+	/** The limits debits are checked against: this account's own, else its type's default. */
+	public synchronized DebitLimits getDebitLimits() {
+		return effectiveLimits();
+	}
+
+	/** Gives this account its own limits; null goes back to the type default. */
+	public synchronized void setDebitLimits(DebitLimits limits) {
+		this.debitLimits = limits;
+	}
+
+	/** Where type defaults and the limit clock come from; null detaches. */
+	public synchronized void attachLimitPolicy(LimitPolicy policy) {
+		this.limitPolicy = policy;
+	}
+
 	// 5. Transaction Management
-	public List<Transaction> getTransactions() {
-		return new ArrayList<>(transactions); // Defensive copy
+	/**
+	 * Read-only view of the recent (in-memory) history as of this call: at
+	 * least the last {@link BankConstants#MAX_STATEMENT} transactions. Rows
+	 * become {@link Transaction} objects only when read; later postings do not appear.
+	 */
+	public synchronized List<Transaction> getTransactions() {
+		return transactions.view();
+	}
+
+	/**
+	 * Transactions dated {@code from} to {@code to} inclusive, oldest first,
+	 * reading archived batches back from disk only as far as {@code from}.
+	 */
+	public List<Transaction> getTransactions(LocalDate from, LocalDate to) throws IOException {
+		List<Transaction> hot;
+		long archivedHead;
+		HistoryArchive archive;
+		synchronized (this) {
+			hot = transactions.view();
+			archivedHead = transactions.archivedHead();
+			archive = this.archive;
+		}
+		// Archived batches are immutable, so they are read without the monitor
+		return TransactionHistory.range(hot, archivedHead, archive, from.atStartOfDay(),
+				to.plusDays(1).atStartOfDay().minusNanos(1));
+	}
+
+	/**
+	 * Streams the transactions dated {@code from} to {@code to} inclusive to
+	 * {@code sink}, oldest first, like {@link #getTransactions(LocalDate, LocalDate)}
+	 * but without materializing them.
+	 */
+	public void exportTransactions(LocalDate from, LocalDate to, StatementSink sink) throws IOException {
+		List<Transaction> hot;
+		long archivedHead;
+		HistoryArchive archive;
+		synchronized (this) {
+			hot = transactions.view();
+			archivedHead = transactions.archivedHead();
+			archive = this.archive;
+		}
+		TransactionHistory.export(hot, archivedHead, archive, localMillis(from), localMillis(to.plusDays(1)), sink);
+	}
+
+	private static long localMillis(LocalDate day) {
+		return day.toEpochDay() * 86_400_000L;
+	}
+
+	/**
+	 * Lets history older than the in-memory window move to {@code archive}.
+	 */
+	public synchronized void attachArchive(HistoryArchive archive) {
+		this.archive = archive;
+		transactions.attach(archive);
+	}
+
+	/**
+	 * Reports every later balance change to {@code observer}; null detaches.
+	 */
+	public synchronized void attachBalanceObserver(BalanceObserver observer) {
+		this.observer = observer;
+	}
+
+	/** Offset of the newest archived batch, or {@link HistoryArchive#NONE}. */
+	public synchronized long getArchivedHistoryHead() {
+		return transactions.archivedHead();
+	}
+
+	/**
+	 * Most recent transaction, or null. Hold the account monitor across the
+	 * mutation and this call to get the transaction that mutation produced.
+	 */
+	public synchronized Transaction getLastTransaction() {
+		return transactions.last();
 	}
 
 	/**
 	 * Prints last N transactions in table format
 	 */
 	public void printStatement(int count) {
+		List<Transaction> history = getTransactions();
 		System.out.println("\n=== LAST " + count + " TRANSACTIONS ===");
 		System.out.println("Date      | Type      | Amount   | Balance  | Desc");
 		System.out.println("------------------------------------------------");
 
-		if (transactions.isEmpty()) {
+		if (history.isEmpty()) {
 			System.out.println("No transactions yet.");
 			return;
 		}
 
-		int start = Math.max(0, transactions.size() - count);
-		for (int i = start; i < transactions.size(); i++) {
-			System.out.println(transactions.get(i));
+		// Only the printed rows are materialized
+		for (int i = Math.max(0, history.size() - count); i < history.size(); i++) {
+			System.out.println(history.get(i));
 		}
 	}
 
 	// 6. Interest Management (Abstract method + utility)
 	/**
-	 * Subclasses must implement interest calculation logic
+	 * Subclasses must implement interest calculation logic.
+	 * Returns the interest due in paise, already rounded (banker's rounding).
 	 */
-	public abstract double calculateInterest();
+	public abstract long calculateInterest();
 
 	/**
-	 * Adds calculated interest to balance and records transaction
+	 * Credits interest for {@code period} at most once: returns the credit, or
+	 * null if that period (or a later one) was already processed or nothing is due.
 	 */
-	public final void addInterestToBalance() {
-		double interest = calculateInterest();
+	public final synchronized Transaction creditInterest(YearMonth period) {
+		if (lastInterestPeriod != null && !period.isAfter(lastInterestPeriod)) {
+			return null;
+		}
+		long interest = calculateInterest();
+		Transaction credit = null;
 		if (interest > 0) {
-			balance += interest;
-			transactions.add(new Transaction(TransactionType.DEPOSIT, interest, balance,
-					"Interest credited to A/c " + accNo));
-			System.out.println("✅ Interest added: ₹" + String.format("%.2f", interest));
+			long newBalance = Math.addExact(balance, interest);
+			credit = new Transaction(TransactionType.DEPOSIT, interest, newBalance,
+					"Interest credited to A/c " + accNo);
+			transactions.add(credit);
+			setBalance(newBalance);
+		}
+		lastInterestPeriod = period;
+		return credit;
+	}
+
+	public synchronized YearMonth getLastInterestPeriod() {
+		return lastInterestPeriod;
+	}
+
+	// 7. Recovery
+	/**
+	 * Re-applies a journaled transaction without re-validating it: the balance
+	 * becomes the recorded balance and the day's debit total is rebuilt.
+	 */
+	public synchronized void restoreTransaction(long transactionId, LocalDateTime timestamp, TransactionType type,
+			long amount, long balanceAfter, String description) {
+		transactions.add(Transaction.restored(transactionId, timestamp, type, amount, balanceAfter, description));
+		setBalance(balanceAfter);
+
+		if (type == TransactionType.WITHDRAWAL || type == TransactionType.TRANSFER_OUT) {
+			debits.restoreDebit((int) timestamp.toLocalDate().toEpochDay(), amount);
+		}
+	}
+
+	/** Paise debited on {@link #getLastDebitDate()}. */
+	public long getTodayDebitTotal() {
+		return debits.dailyTotal();
+	}
+
+	public LocalDate getLastDebitDate() {
+		return LocalDate.ofEpochDay(debits.epochDay());
+	}
+
+	/**
+	 * Restores the daily debit counter captured in a snapshot.
+	 */
+	public synchronized void restoreDebitState(long todayDebitTotal, LocalDate lastDebitDate) {
+		debits.restore((int) lastDebitDate.toEpochDay(), todayDebitTotal);
+	}
+
+	/**
+	 * Restores the archived-history chain captured in a snapshot.
+	 */
+	public synchronized void restoreArchivedHistoryHead(long offset) {
+		transactions.restoreArchivedHead(offset);
+	}
+
+	/**
+	 * Marks {@code period} as credited; an earlier period never moves it back.
+	 */
+	public synchronized void restoreInterestPeriod(YearMonth period) {
+		if (period != null && (lastInterestPeriod == null || period.isAfter(lastInterestPeriod))) {
+			lastInterestPeriod = period;
 		}
 	}
 
-	// 7. toString() - Professional format
+	// 8. toString() - Professional format
 	@Override
 	public String toString() {
-		return String.format("AccNo=%d, IFSC=%s, Bal=₹%.2f, Type=%s", 
-				accNo, ifscCode, balance, accType);
+		return String.format("AccNo=%d, IFSC=%s, Bal=₹%s, Type=%s", 
+				accNo, ifscCode, Money.format(balance), accType);
 	}
 
-	private void checkDailyLimit(double amount) throws DailyLimitExceededException {
-		java.time.LocalDate today = java.time.LocalDate.now();
+	// Both rows of a checked transfer, under one id. Caller holds both monitors
+	private void postTransfer(Account to, long amount, long newBalance, long credited) {
+		long transferId = Transaction.allocateId();
+		transactions.add(Transaction.withId(transferId, TransactionType.TRANSFER_OUT, amount, newBalance,
+				"Transfer to A/c " + to.accNo));
+		setBalance(newBalance);
+		to.transactions.add(Transaction.withId(transferId, TransactionType.TRANSFER_IN, amount, credited,
+				"Transfer from A/c " + accNo));
+		to.setBalance(credited);
+	}
 
-		// reset if new day
-		if (!today.equals(lastDebitDate)) {
-			todayDebitTotal = 0.0;
-			lastDebitDate = today;
-		}
+	// Every rule a debit must pass, limits last because a counted debit stays counted. Caller holds the monitor
+	private PostingStatus reserveDebit(long amount) {
+		if (amount <= 0) return PostingStatus.INVALID_AMOUNT;
+		if (balance < amount) return PostingStatus.INSUFFICIENT_FUNDS;
+		if (balance - amount < BankConstants.MIN_BALANCE) return PostingStatus.MIN_BALANCE;
+		return debits.tryReserve(amount, effectiveLimits(), clock());
+	}
 
-		if (todayDebitTotal + amount > DAILY_LIMIT) {
-			throw new DailyLimitExceededException();
+	// The exception for a declined debit of amount; nothing has changed since, so the state still explains it
+	private void throwDeclined(PostingStatus status, long amount) throws InvalidAmountException,
+			InsufficientFundsException, LimitExceededException, MinimumBalanceException {
+		DebitLimits limits = effectiveLimits();
+		switch (status) {
+		case INVALID_AMOUNT -> throw new InvalidAmountException(amount);
+		case INSUFFICIENT_FUNDS -> throw new InsufficientFundsException(amount, balance);
+		case MIN_BALANCE -> throw new MinimumBalanceException(balance - amount);
+		case TRANSACTION_LIMIT -> throw new TransactionLimitExceededException(amount, limits.perTransaction());
+		case DAILY_LIMIT -> throw new DailyLimitExceededException(limits.daily());
+		case VELOCITY_LIMIT -> throw new VelocityLimitExceededException(limits.perMinute());
+		default -> throw new ArithmeticException("long overflow");     // FAILED: a transfer credit would overflow
 		}
 	}
+
+	// Caller holds the monitor
+	private DebitLimits effectiveLimits() {
+		if (debitLimits != null) return debitLimits;
+		return limitPolicy != null ? limitPolicy.forType(accType) : DebitLimits.DEFAULT;
+	}
+
+	private EpochClock clock() {
+		return limitPolicy != null ? limitPolicy.clock() : EpochClock.SYSTEM;
+	}
+
+	// Every balance change goes through here so an attached observer sees it
+	private void setBalance(long newBalance) {
+		long oldBalance = balance;
+		balance = newBalance;
+		if (observer != null) observer.balanceChanged(this, oldBalance, newBalance);
+	}
 }
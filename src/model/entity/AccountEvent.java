@@ -0,0 +1,13 @@
+package model.entity;
+
+import model.enums.AccountEventType;
+
+/**
+ * Something that happened to a customer or account, published after the
+ * change is applied (and durable, with a journal). Fields that do not apply to
+ * a type are 0 or null: {@code counterAccNo} is the receiving account of a
+ * transfer, {@code text} the customer name or a failure message.
+ */
+public record AccountEvent(AccountEventType type, int custId, int accNo, long amount, long balance,
+		int counterAccNo, String text) {
+}
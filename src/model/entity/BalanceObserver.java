@@ -0,0 +1,11 @@
+package model.entity;
+
+/**
+ * Told about every balance change of the accounts it is attached to, while
+ * the account's monitor is held; changes to one account therefore arrive in
+ * order. Implementations must be quick and must not throw.
+ */
+public interface BalanceObserver {
+
+	void balanceChanged(Account account, long oldBalance, long newBalance);
+}
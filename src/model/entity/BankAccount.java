@@ -1,13 +1,25 @@
 package model.entity;
 
-import exceptions.DailyLimitExceededException;
 import exceptions.InsufficientFundsException;
 import exceptions.InvalidAmountException;
+import exceptions.LimitExceededException;
 import exceptions.MinimumBalanceException;
+import model.enums.PostingStatus;
 
+/**
+ * Core account contract. Balances and amounts are exact paise (see {@link util.Money}).
+ *
+ * Each posting comes in two forms: {@code tryDeposit}/{@code tryWithdraw}
+ * report a decline as a {@link PostingStatus}, which costs nothing extra, and
+ * {@code deposit}/{@code withdraw} throw for it instead, paying for the
+ * exception and its stack trace. Paths where declines are common (batches,
+ * the server, card-style authorisations) should use the status form.
+ */
 public interface BankAccount {
     public int getAccNo();
-    double getBalance();
-    void deposit(double amount) throws InvalidAmountException;
-    void withdraw(double amount) throws InvalidAmountException, InsufficientFundsException, DailyLimitExceededException, MinimumBalanceException;
+    long getBalance();
+    void deposit(long amount) throws InvalidAmountException;
+    void withdraw(long amount) throws InvalidAmountException, InsufficientFundsException, LimitExceededException, MinimumBalanceException;
+    PostingStatus tryDeposit(long amount);
+    PostingStatus tryWithdraw(long amount);
 }
@@ -10,7 +10,7 @@ public class CurrentAccount extends Account {
     private final String compName;
     
     // 2. Constructor
-    public CurrentAccount(int accNo, String ifscCode, double balance, AccountType accType, String compName) throws InvalidIFSCException,MinimumBalanceException{
+    public CurrentAccount(int accNo, String ifscCode, long balance, AccountType accType, String compName) throws InvalidIFSCException,MinimumBalanceException{
         super(accNo, ifscCode, balance, accType);
         this.compName = compName != null ? compName.trim() : "Unknown Company";
     }
@@ -22,8 +22,8 @@ public class CurrentAccount extends Account {
     
     // 4. Interest Calculation (Current accounts = 0% interest)
     @Override
-    public double calculateInterest() {
-        return 0.0; // Current accounts don't earn interest
+    public long calculateInterest() {
+        return 0L; // Current accounts don't earn interest
     }
     
     // 5. toString() - Professional format
@@ -48,13 +48,11 @@ public class Customer {
 			throw new IllegalArgumentException("Valid name (2-50 chars) required");
 		}
 		this.custName = custName.trim();
-		System.out.println("✅ Name updated to: " + this.custName);
 	}
 
 	public void setCustAddr(Address custAddr) {
 		if (custAddr == null) throw new IllegalArgumentException("Address required");
 		this.custAddr = custAddr;
-		System.out.println("✅ Address updated");
 	}
 
 	// 5. Professional toString()
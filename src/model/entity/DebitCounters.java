@@ -0,0 +1,93 @@
+package model.entity;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.enums.PostingStatus;
+import util.EpochClock;
+
+/**
+ * Running debit totals for one account: paise debited today and debits made
+ * this minute. Each window is one packed {@link AtomicLong} holding the window
+ * and its count, so rolling over to a new day or minute and adding to it is a
+ * single compare-and-set, and concurrent debits can never both slip under a
+ * limit, whether or not the caller holds a lock.
+ */
+final class DebitCounters {
+
+	static final long MAX_DAILY_TOTAL = (1L << 40) - 1;
+	private static final int DAY_SHIFT = 40;        // (epochDay << 40) | paise debited that day
+	private static final int MINUTE_SHIFT = 32;     // (epochMinute << 32) | debits that minute
+
+	private final AtomicLong day = new AtomicLong();
+	private final AtomicLong minute = new AtomicLong();
+
+	/**
+	 * Counts a debit of {@code amount} if it fits every limit, returning
+	 * {@link PostingStatus#APPLIED}; otherwise counts nothing and returns the
+	 * limit it broke. A counted debit is never taken back, so callers check
+	 * everything else (amount, balance) first.
+	 */
+	PostingStatus tryReserve(long amount, DebitLimits limits, EpochClock clock) {
+		if (amount > limits.perTransaction()) return PostingStatus.TRANSACTION_LIMIT;
+
+		long thisMinute = -1;
+		if (limits.perMinute() != DebitLimits.UNLIMITED_RATE) {
+			thisMinute = clock.epochMinute();
+			long current;
+			int count;
+			do {
+				current = minute.get();
+				count = current >>> MINUTE_SHIFT == thisMinute ? (int) current : 0;
+				if (count >= limits.perMinute()) return PostingStatus.VELOCITY_LIMIT;
+			} while (!minute.compareAndSet(current, thisMinute << MINUTE_SHIFT | (count + 1)));
+		}
+
+		int today = clock.epochDay();
+		long current;
+		long total;
+		do {
+			current = day.get();
+			total = current >>> DAY_SHIFT == today ? current & MAX_DAILY_TOTAL : 0;
+			if (amount > limits.daily() - total) {
+				if (thisMinute >= 0) uncount(thisMinute);
+				return PostingStatus.DAILY_LIMIT;
+			}
+		} while (!day.compareAndSet(current, (long) today << DAY_SHIFT | (total + amount)));
+		return PostingStatus.APPLIED;
+	}
+
+	// Takes back this call's velocity count unless the minute has already moved on
+	private void uncount(long thisMinute) {
+		minute.getAndUpdate(current -> current >>> MINUTE_SHIFT == thisMinute ? current - 1 : current);
+	}
+
+	/** Day of the latest counted debit, as {@link java.time.LocalDate#toEpochDay()}. */
+	int epochDay() {
+		return (int) (day.get() >>> DAY_SHIFT);
+	}
+
+	/** Paise debited on {@link #epochDay()}. */
+	long dailyTotal() {
+		return day.get() & MAX_DAILY_TOTAL;
+	}
+
+	/** Recovery: counts a replayed debit; an older day than the latest one seen is ignored. */
+	void restoreDebit(int epochDay, long amount) {
+		day.getAndUpdate(current -> {
+			int latest = (int) (current >>> DAY_SHIFT);
+			long total = current & MAX_DAILY_TOTAL;
+			if (epochDay == latest) return pack(epochDay, total + amount);
+			if (epochDay > latest || total == 0) return pack(epochDay, amount);
+			return current;
+		});
+	}
+
+	/** Recovery: replaces the day's total with one captured in a snapshot. */
+	void restore(int epochDay, long total) {
+		day.set(pack(epochDay, total));
+	}
+
+	private static long pack(int epochDay, long total) {
+		return (long) epochDay << DAY_SHIFT | Math.min(Math.max(total, 0), MAX_DAILY_TOTAL);
+	}
+}
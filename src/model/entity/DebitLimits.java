@@ -0,0 +1,30 @@
+package model.entity;
+
+import util.BankConstants;
+import util.Money;
+
+/**
+ * How much an account may debit: per transaction, per calendar day, and how
+ * many debits per minute. Amounts are paise. Withdrawals and the paying side
+ * of transfers count; deposits never do.
+ */
+public record DebitLimits(long perTransaction, long daily, int perMinute) {
+
+	/** {@link #perMinute} value that switches the velocity check off. */
+	public static final int UNLIMITED_RATE = Integer.MAX_VALUE;
+
+	/** Largest daily limit the day counter can hold (about ₹11 billion). */
+	public static final long MAX_DAILY = DebitCounters.MAX_DAILY_TOTAL;
+
+	public static final DebitLimits DEFAULT = new DebitLimits(BankConstants.DAILY_LIMIT, BankConstants.DAILY_LIMIT,
+			UNLIMITED_RATE);
+
+	public DebitLimits {
+		if (perTransaction <= 0 || daily <= 0 || perMinute <= 0) {
+			throw new IllegalArgumentException("Limits must be positive");
+		}
+		if (daily > MAX_DAILY) {
+			throw new IllegalArgumentException("Daily limit above ₹" + Money.format(MAX_DAILY));
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package model.entity;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import model.enums.TransactionType;
+
+/**
+ * Append-only store for transactions that have aged out of an account's
+ * in-memory history. Each account's spilled batches form a chain: every batch
+ * records the offset of the one before it, and the account keeps only the
+ * offset of its newest batch.
+ */
+public interface HistoryArchive {
+
+	/** Offset of "no batch": the start of an account's chain. */
+	long NONE = -1L;
+
+	/** Receives the rows of one batch, oldest first. */
+	interface RowSink {
+		void row(long transactionId, LocalDateTime timestamp, TransactionType type, long amount, long balanceAfter,
+				String description);
+	}
+
+	/**
+	 * Appends {@code rows} (oldest first) as one batch linked to {@code previous}.
+	 *
+	 * @return the new batch's offset
+	 */
+	long append(long previous, List<Transaction> rows) throws IOException;
+
+	/**
+	 * Reads the batch at {@code offset} into {@code sink}.
+	 *
+	 * @return the offset of the batch before it, or {@link #NONE}
+	 */
+	long read(long offset, RowSink sink) throws IOException;
+
+	/**
+	 * Offsets of the batches a statement from {@code fromLocalMillis} on needs,
+	 * oldest first: from {@code head} back to the first batch that starts
+	 * before that time.
+	 */
+	long[] batchesSince(long head, long fromLocalMillis) throws IOException;
+
+	/** Streams the rows of the batch at {@code offset}, oldest first. */
+	void export(long offset, StatementSink sink) throws IOException;
+}
@@ -0,0 +1,36 @@
+package model.entity;
+
+import java.util.UUID;
+
+/**
+ * Client-chosen 128-bit key that makes a posting safe to retry: a second
+ * request with the same key gets the first one's outcome instead of running
+ * again. Usually a random UUID generated once per logical request.
+ */
+public record IdempotencyKey(long high, long low) {
+
+	public static IdempotencyKey of(UUID uuid) {
+		return new IdempotencyKey(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	public static IdempotencyKey random() {
+		return of(UUID.randomUUID());
+	}
+
+	/**
+	 * Parses a UUID ({@code 8-4-4-4-12} hex digits) or 32 bare hex digits.
+	 *
+	 * @throws IllegalArgumentException if {@code text} is neither
+	 */
+	public static IdempotencyKey parse(String text) {
+		if (text.length() == 32 && text.indexOf('-') < 0) {
+			return new IdempotencyKey(Long.parseUnsignedLong(text, 0, 16, 16), Long.parseUnsignedLong(text, 16, 32, 16));
+		}
+		return of(UUID.fromString(text));
+	}
+
+	@Override
+	public String toString() {
+		return new UUID(high, low).toString();
+	}
+}
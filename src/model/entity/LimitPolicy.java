@@ -0,0 +1,47 @@
+package model.entity;
+
+import java.util.Arrays;
+
+import model.enums.AccountType;
+import util.EpochClock;
+
+/**
+ * Default {@link DebitLimits} per account type plus the clock the limit
+ * windows run on. Accounts read it on every debit, so type defaults can be
+ * changed at any time and apply from the next debit; an account with its own
+ * limits ({@link Account#setDebitLimits}) ignores its type's default.
+ *
+ * Limits are configuration, not account state: they are not journaled and
+ * must be applied again after a restart.
+ */
+public final class LimitPolicy {
+
+	private final EpochClock clock;
+	private volatile DebitLimits[] byType;    // indexed by AccountType ordinal; replaced, never mutated
+
+	public LimitPolicy() {
+		this(EpochClock.SYSTEM);
+	}
+
+	public LimitPolicy(EpochClock clock) {
+		this.clock = clock;
+		DebitLimits[] defaults = new DebitLimits[AccountType.values().length];
+		Arrays.fill(defaults, DebitLimits.DEFAULT);
+		this.byType = defaults;
+	}
+
+	public EpochClock clock() {
+		return clock;
+	}
+
+	public DebitLimits forType(AccountType type) {
+		return byType[type.ordinal()];
+	}
+
+	public synchronized void setForType(AccountType type, DebitLimits limits) {
+		if (limits == null) throw new IllegalArgumentException("limits");
+		DebitLimits[] next = byType.clone();
+		next[type.ordinal()] = limits;
+		byType = next;
+	}
+}
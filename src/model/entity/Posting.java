@@ -0,0 +1,18 @@
+package model.entity;
+
+import model.enums.TransactionType;
+
+/**
+ * One line of a batch (payroll, settlement file): a deposit or withdrawal of
+ * {@code amount} paise against account {@code accNo}.
+ */
+public record Posting(int accNo, TransactionType type, long amount) {
+
+	public static Posting deposit(int accNo, long amount) {
+		return new Posting(accNo, TransactionType.DEPOSIT, amount);
+	}
+
+	public static Posting withdrawal(int accNo, long amount) {
+		return new Posting(accNo, TransactionType.WITHDRAWAL, amount);
+	}
+}
@@ -0,0 +1,38 @@
+package model.entity;
+
+import model.enums.PostingStatus;
+import util.Money;
+
+/**
+ * Outcome of one posting made through a {@code try...} call: its status and,
+ * when {@link PostingStatus#APPLIED}, the (paying) account's balance right
+ * after it, read while the posting still held the account. Declines carry no
+ * balance and are shared instances, so they cost no allocation. The balance is
+ * kept as paise; {@link #balance()} wraps it for callers that report it.
+ */
+public record PostingResult(PostingStatus status, long balancePaise) {
+
+	private static final PostingResult[] DECLINED = new PostingResult[PostingStatus.values().length];
+
+	static {
+		for (PostingStatus status : PostingStatus.values()) {
+			DECLINED[status.ordinal()] = new PostingResult(status, 0);
+		}
+	}
+
+	public static PostingResult applied(long balance) {
+		return new PostingResult(PostingStatus.APPLIED, balance);
+	}
+
+	public static PostingResult declined(PostingStatus status) {
+		return DECLINED[status.ordinal()];
+	}
+
+	public boolean isApplied() {
+		return status == PostingStatus.APPLIED;
+	}
+
+	public Money balance() {
+		return Money.ofPaise(balancePaise);
+	}
+}
@@ -3,19 +3,22 @@ package model.entity;
 import exceptions.InvalidIFSCException;
 import exceptions.MinimumBalanceException;
 import model.enums.AccountType;
+import util.Money;
 
 public class SavingsAccount extends Account {
     
     // 1. Fields (private, final)
     private final double interestRate;
+    private final long rateBasisPoints;   // 6.5% -> 650
     
     // 2. Constructor with validation
-    public SavingsAccount(int accNo, String ifscCode, double balance, AccountType accType, double interestRate) throws InvalidIFSCException,MinimumBalanceException{
+    public SavingsAccount(int accNo, String ifscCode, long balance, AccountType accType, double interestRate) throws InvalidIFSCException,MinimumBalanceException{
         super(accNo, ifscCode, balance, accType);
         if (interestRate < 0 || interestRate > 20) {
             throw new IllegalArgumentException("Interest rate must be 0-20%: " + interestRate);
         }
         this.interestRate = interestRate;
+        this.rateBasisPoints = Math.round(interestRate * 100);
     }
     
     // 3. Business Getters
@@ -25,8 +28,9 @@ public class SavingsAccount extends Account {
     
     // 4. Interest Calculation (Monthly simple interest)
     @Override
-    public double calculateInterest() {
-        return getBalance() * (interestRate / 100) * (1.0 / 12); // Monthly interest
+    public long calculateInterest() {
+        // balance * (bps / 10_000) / 12, rounded half-even to the paisa
+        return Money.mulDivHalfEven(getBalance(), rateBasisPoints, 10_000L * 12);
     }
     
     // 5. Professional toString()
@@ -0,0 +1,23 @@
+package model.entity;
+
+import java.io.IOException;
+
+import model.enums.TransactionType;
+
+/**
+ * Receives statement rows as primitives, for bulk export without building a
+ * {@link Transaction} or a String per row.
+ */
+@FunctionalInterface
+public interface StatementSink {
+
+	/**
+	 * One row. {@code localMillis} is the local date-time counted as UTC epoch
+	 * millis (as the journal stores it). The description is the UTF-8 bytes
+	 * {@code text[offset, offset + length)} followed, when {@code suffix >= 0},
+	 * by {@code suffix} in decimal. The bytes are shared: read them during the
+	 * call, never modify or keep them.
+	 */
+	void row(long transactionId, long localMillis, TransactionType type, long amount, long balanceAfter,
+			byte[] text, int offset, int length, long suffix) throws IOException;
+}
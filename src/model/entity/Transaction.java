@@ -2,22 +2,30 @@ package model.entity;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-
 import model.enums.TransactionType;
+import util.IdGenerator;
+import util.Money;
 
 public class Transaction {
 
 	// 1. Fields (private, final everywhere)
 	private final TransactionType type;
-	private final double amount;
-	private final int transactionId;
-	private static int nextId = 1;
+	private final long amount;
+	private final long transactionId;
+	private static final IdGenerator ids = IdGenerator.SYSTEM;
+	private static final DateTimeFormatter STATEMENT_TIME = DateTimeFormatter.ofPattern("dd-MM HH:mm");
 	private final LocalDateTime timestamp;
-	private final double balanceAfter;
+	private final long balanceAfter;
 	private final String description;
 
 	// 2. Constructor with validation
-	public Transaction(TransactionType type, double amount, double balanceAfter, String description)
+	public Transaction(TransactionType type, long amount, long balanceAfter, String description)
+	{
+		this(ids.next(), LocalDateTime.now(), type, amount, balanceAfter, description);
+	}
+
+	private Transaction(long transactionId, LocalDateTime timestamp, TransactionType type,
+			long amount, long balanceAfter, String description)
 	{
 		if (type == null) throw new IllegalArgumentException("Transaction type required");
 		if (amount <= 0) throw new IllegalArgumentException("Amount must be positive: " + amount);
@@ -25,16 +33,45 @@ public class Transaction {
 			throw new IllegalArgumentException("Description required");
 		}
 
-		this.transactionId = Transaction.nextId++;
-		this.timestamp = LocalDateTime.now();
+		this.transactionId = transactionId;
+		this.timestamp = timestamp;
 		this.type = type;
 		this.amount = amount;
 		this.balanceAfter = balanceAfter;
 		this.description = description.trim();
 	}
 
+	/**
+	 * Rebuilds a transaction read back from the journal, keeping its original id
+	 * and time; ids issued afterwards continue past it.
+	 */
+	static Transaction restored(long transactionId, LocalDateTime timestamp, TransactionType type,
+			long amount, long balanceAfter, String description) {
+		ids.observe(transactionId);
+		return new Transaction(transactionId, timestamp, type, amount, balanceAfter, description);
+	}
+
+	/** Reserves a transaction id, for postings whose rows share one (both legs of a transfer). */
+	static long allocateId() {
+		return ids.next();
+	}
+
+	/** A new transaction under an id from {@link #allocateId()}. */
+	static Transaction withId(long transactionId, TransactionType type, long amount, long balanceAfter,
+			String description) {
+		return new Transaction(transactionId, LocalDateTime.now(), type, amount, balanceAfter, description);
+	}
+
+	/**
+	 * Re-creates a stored row; unlike {@link #restored} it leaves the id sequence alone.
+	 */
+	static Transaction row(long transactionId, LocalDateTime timestamp, TransactionType type,
+			long amount, long balanceAfter, String description) {
+		return new Transaction(transactionId, timestamp, type, amount, balanceAfter, description);
+	}
+
 	// 3. Business Getters
-	public int getTransactionId() {
+	public long getTransactionId() {
 		return transactionId;
 	}
 
@@ -46,11 +83,11 @@ public class Transaction {
 		return type;
 	}
 
-	public double getAmount() {
+	public long getAmount() {
 		return amount;
 	}
 
-	public double getBalanceAfter() {
+	public long getBalanceAfter() {
 		return balanceAfter;
 	}
 
@@ -61,8 +98,8 @@ public class Transaction {
 	// 4. Professional toString() - Table formatted
 	@Override
 	public String toString() {
-		return String.format("[%s] ID:%-3d %8s ₹%10.2f | Bal:₹%10.2f | %s",
-				timestamp.format(DateTimeFormatter.ofPattern("dd-MM HH:mm")),
-				transactionId, type, amount, balanceAfter, description);
+		return String.format("[%s] ID:%-3d %8s ₹%10s | Bal:₹%10s | %s",
+				timestamp.format(STATEMENT_TIME),
+				transactionId, type, Money.format(amount), Money.format(balanceAfter), description);
 	}
 }
@@ -0,0 +1,368 @@
+package model.entity;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.enums.TransactionType;
+import util.BankConstants;
+
+/**
+ * Append-only transaction history kept in primitive columns rather than one
+ * {@link Transaction} object per row: about 37 bytes a row instead of a few
+ * hundred. Descriptions are stored as ids into a shared table; a description
+ * that ends with the owning account's number is stored as its prefix plus a
+ * flag, so "Deposit to A/c 1001" and "Deposit to A/c 1002" share one entry.
+ * A transfer leg's "Transfer to/from A/c n", and the "Reversal of transfer
+ * to A/c n" that gives back a split transfer's failed credit, keep just the
+ * counterparty's number, their prefix following from the tag and row type,
+ * so the table does not grow with the number of accounts.
+ *
+ * Only a bounded window of recent rows stays in memory ("hot"): when its
+ * arrays fill up holding at least twice {@link BankConstants#MAX_STATEMENT}
+ * rows, all but the newest
+ * MAX_STATEMENT are spilled as one batch to the {@link HistoryArchive} and
+ * read back only for date-range queries. Until an archive is attached, or
+ * while it is failing, the window simply keeps growing.
+ *
+ * Not thread-safe on its own: the owning {@link Account} guards it with its
+ * monitor. Spilling moves the kept rows into fresh arrays instead of shifting
+ * them in place, so a {@link #view()} taken under that monitor stays valid and
+ * consistent without it.
+ */
+final class TransactionHistory {
+
+	private static final int INITIAL_CAPACITY = 4;
+	private static final int HOT_ROWS = BankConstants.MAX_STATEMENT;
+	// Low two bits of a description code
+	private static final int TEXT = 0;
+	private static final int OWN_ACC_NO = 1;
+	private static final int COUNTER_ACC_NO = 2;
+	private static final int REVERSED_ACC_NO = 3;
+	private static final int TAG_BITS = 2;
+	private static final int TAG_MASK = (1 << TAG_BITS) - 1;
+
+	// Counterparty prefix by tag and TransactionType ordinal, for COUNTER_ACC_NO and REVERSED_ACC_NO codes
+	private static final String[][] COUNTER_PREFIX = new String[TAG_MASK + 1][TransactionType.values().length];
+	private static final byte[][][] COUNTER_PREFIX_UTF8 = new byte[TAG_MASK + 1][TransactionType.values().length][];
+	static {
+		COUNTER_PREFIX[COUNTER_ACC_NO][TransactionType.TRANSFER_OUT.ordinal()] = "Transfer to A/c ";
+		COUNTER_PREFIX[COUNTER_ACC_NO][TransactionType.TRANSFER_IN.ordinal()] = "Transfer from A/c ";
+		COUNTER_PREFIX[REVERSED_ACC_NO][TransactionType.TRANSFER_IN.ordinal()] = "Reversal of transfer to A/c ";
+		for (int tag = COUNTER_ACC_NO; tag <= REVERSED_ACC_NO; tag++) {
+			for (int i = 0; i < COUNTER_PREFIX[tag].length; i++) {
+				String prefix = COUNTER_PREFIX[tag][i];
+				if (prefix != null) COUNTER_PREFIX_UTF8[tag][i] = prefix.getBytes(StandardCharsets.UTF_8);
+			}
+		}
+	}
+
+	private final int accNo;
+	private final String accNoSuffix;
+	private HistoryArchive archive;
+	private long archivedHead = HistoryArchive.NONE;   // newest spilled batch
+	private int size;
+	private long[] ids = new long[INITIAL_CAPACITY];
+	private long[] epochMillis = new long[INITIAL_CAPACITY];
+	private byte[] types = new byte[INITIAL_CAPACITY];
+	private long[] amounts = new long[INITIAL_CAPACITY];
+	private long[] balances = new long[INITIAL_CAPACITY];
+	private int[] descriptions = new int[INITIAL_CAPACITY];
+
+	TransactionHistory(int accNo) {
+		this.accNo = accNo;
+		this.accNoSuffix = Integer.toString(accNo);
+	}
+
+	void attach(HistoryArchive archive) {
+		this.archive = archive;
+	}
+
+	long archivedHead() {
+		return archivedHead;
+	}
+
+	void restoreArchivedHead(long offset) {
+		archivedHead = offset;
+	}
+
+	void add(Transaction txn) {
+		if (size == ids.length && !(size >= 2 * HOT_ROWS && spill())) grow();
+		ids[size] = txn.getTransactionId();
+		epochMillis[size] = txn.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli();
+		types[size] = (byte) txn.getType().ordinal();
+		amounts[size] = txn.getAmount();
+		balances[size] = txn.getBalanceAfter();
+		descriptions[size] = encode(txn.getType(), txn.getDescription());
+		size++;
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	Transaction last() {
+		return size == 0 ? null : view().get(size - 1);
+	}
+
+	/**
+	 * Read-only list over the rows present now; rows are turned into
+	 * {@link Transaction} objects only as they are read.
+	 */
+	List<Transaction> view() {
+		return new Rows(size, ids, epochMillis, types, amounts, balances, descriptions, accNo, accNoSuffix);
+	}
+
+	/**
+	 * Hot rows, then archived batches newest first, keeping rows whose day
+	 * lies in {@code [from, to]}; stops at the first batch older than {@code from}.
+	 * Returned oldest first.
+	 */
+	static List<Transaction> range(List<Transaction> hot, long archivedHead, HistoryArchive archive,
+			LocalDateTime from, LocalDateTime to) throws IOException {
+		List<Transaction> newestFirst = new ArrayList<>();
+		for (int i = hot.size() - 1; i >= 0; i--) {
+			Transaction txn = hot.get(i);
+			if (txn.getTimestamp().isBefore(from)) return reversed(newestFirst);
+			if (!txn.getTimestamp().isAfter(to)) newestFirst.add(txn);
+		}
+		List<Transaction> batch = new ArrayList<>();
+		for (long offset = archivedHead; offset != HistoryArchive.NONE && archive != null; ) {
+			batch.clear();
+			offset = archive.read(offset, (id, time, type, amount, balanceAfter, description) -> batch.add(
+					Transaction.row(id, time, type, amount, balanceAfter, description)));
+			for (int i = batch.size() - 1; i >= 0; i--) {
+				Transaction txn = batch.get(i);
+				if (txn.getTimestamp().isBefore(from)) return reversed(newestFirst);
+				if (!txn.getTimestamp().isAfter(to)) newestFirst.add(txn);
+			}
+		}
+		return reversed(newestFirst);
+	}
+
+	/**
+	 * Streams the rows of {@code hot} and the archive whose local time lies in
+	 * {@code [fromMillis, toMillis)} to {@code sink}, oldest first, reading only
+	 * the archived batches that can hold such rows.
+	 */
+	static void export(List<Transaction> hot, long archivedHead, HistoryArchive archive, long fromMillis,
+			long toMillis, StatementSink sink) throws IOException {
+		Rows rows = (Rows) hot;
+		if (archive != null && archivedHead != HistoryArchive.NONE
+				&& (rows.size == 0 || rows.epochMillis[0] >= fromMillis)) {
+			StatementSink inRange = (id, millis, type, amount, balanceAfter, text, offset, length, suffix) -> {
+				if (millis >= fromMillis && millis < toMillis) {
+					sink.row(id, millis, type, amount, balanceAfter, text, offset, length, suffix);
+				}
+			};
+			for (long batch : archive.batchesSince(archivedHead, fromMillis)) {
+				archive.export(batch, inRange);
+			}
+		}
+		int i = 0;
+		while (i < rows.size && rows.epochMillis[i] < fromMillis) i++;
+		for (; i < rows.size && rows.epochMillis[i] < toMillis; i++) {
+			rows.export(i, sink);
+		}
+	}
+
+	private static List<Transaction> reversed(List<Transaction> list) {
+		Collections.reverse(list);
+		return list;
+	}
+
+	/** Moves all but the newest HOT_ROWS rows to the archive; false leaves everything hot. */
+	private boolean spill() {
+		if (archive == null) return false;
+		int spilled = size - HOT_ROWS;
+		try {
+			archivedHead = archive.append(archivedHead, view().subList(0, spilled));
+		} catch (IOException e) {
+			return false;       // retried when the window next fills up
+		}
+		int capacity = ids.length;
+		ids = tail(ids, spilled, capacity);
+		epochMillis = tail(epochMillis, spilled, capacity);
+		types = tail(types, spilled, capacity);
+		amounts = tail(amounts, spilled, capacity);
+		balances = tail(balances, spilled, capacity);
+		descriptions = tail(descriptions, spilled, capacity);
+		size = HOT_ROWS;
+		return true;
+	}
+
+	private void grow() {
+		int capacity = ids.length * 2;
+		ids = Arrays.copyOf(ids, capacity);
+		epochMillis = Arrays.copyOf(epochMillis, capacity);
+		types = Arrays.copyOf(types, capacity);
+		amounts = Arrays.copyOf(amounts, capacity);
+		balances = Arrays.copyOf(balances, capacity);
+		descriptions = Arrays.copyOf(descriptions, capacity);
+	}
+
+	// Fresh arrays, never in place: open views still read the old ones
+	private int[] tail(int[] column, int from, int capacity) {
+		int[] copy = new int[capacity];
+		System.arraycopy(column, from, copy, 0, size - from);
+		return copy;
+	}
+
+	private long[] tail(long[] column, int from, int capacity) {
+		long[] copy = new long[capacity];
+		System.arraycopy(column, from, copy, 0, size - from);
+		return copy;
+	}
+
+	private byte[] tail(byte[] column, int from, int capacity) {
+		byte[] copy = new byte[capacity];
+		System.arraycopy(column, from, copy, 0, size - from);
+		return copy;
+	}
+
+	// Description codes: (table id << 2) | TEXT, (prefix id << 2) | OWN_ACC_NO when the
+	// owner's accNo was stripped, or (accNo << 2) | COUNTER_ACC_NO for a transfer leg
+	// and REVERSED_ACC_NO for a reversal
+	private int encode(TransactionType type, String description) {
+		for (int tag = COUNTER_ACC_NO; tag <= REVERSED_ACC_NO; tag++) {
+			String counterPrefix = COUNTER_PREFIX[tag][type.ordinal()];
+			if (counterPrefix != null && description.startsWith(counterPrefix)) {
+				int accNo = parseAccNo(description, counterPrefix.length());
+				if (accNo >= 0) return (accNo << TAG_BITS) | tag;
+			}
+		}
+		if (description.endsWith(accNoSuffix) && description.length() > accNoSuffix.length()
+				&& !Character.isDigit(description.charAt(description.length() - accNoSuffix.length() - 1))) {
+			String prefix = description.substring(0, description.length() - accNoSuffix.length());
+			return (Descriptions.idOf(prefix) << TAG_BITS) | OWN_ACC_NO;
+		}
+		return (Descriptions.idOf(description) << TAG_BITS) | TEXT;
+	}
+
+	// The canonical decimal number filling text from index from, if it fits the code; else -1
+	private static int parseAccNo(String text, int from) {
+		int len = text.length() - from;
+		if (len < 1 || len > 9 || (len > 1 && text.charAt(from) == '0')) return -1;
+		int n = 0;
+		for (int i = from; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < '0' || c > '9') return -1;
+			n = n * 10 + (c - '0');
+		}
+		return n <= Integer.MAX_VALUE >>> TAG_BITS ? n : -1;
+	}
+
+	private static String decode(int code, byte type, String accNoSuffix) {
+		return switch (code & TAG_MASK) {
+		case OWN_ACC_NO -> Descriptions.text(code >>> TAG_BITS) + accNoSuffix;
+		case COUNTER_ACC_NO, REVERSED_ACC_NO -> COUNTER_PREFIX[code & TAG_MASK][type] + (code >>> TAG_BITS);
+		default -> Descriptions.text(code >>> TAG_BITS);
+		};
+	}
+
+	/** Immutable window over columns that are append-only below {@code size}. */
+	private static final class Rows extends AbstractList<Transaction> implements RandomAccess {
+		private static final TransactionType[] TYPES = TransactionType.values();
+
+		private final int size;
+		private final long[] ids;
+		private final long[] epochMillis;
+		private final byte[] types;
+		private final long[] amounts;
+		private final long[] balances;
+		private final int[] descriptions;
+		private final int accNo;
+		private final String accNoSuffix;
+
+		Rows(int size, long[] ids, long[] epochMillis, byte[] types, long[] amounts, long[] balances,
+				int[] descriptions, int accNo, String accNoSuffix) {
+			this.size = size;
+			this.ids = ids;
+			this.epochMillis = epochMillis;
+			this.types = types;
+			this.amounts = amounts;
+			this.balances = balances;
+			this.descriptions = descriptions;
+			this.accNo = accNo;
+			this.accNoSuffix = accNoSuffix;
+		}
+
+		void export(int i, StatementSink sink) throws IOException {
+			int code = descriptions[i];
+			byte[] text;
+			long suffix;
+			if ((code & TAG_MASK) >= COUNTER_ACC_NO) {
+				text = COUNTER_PREFIX_UTF8[code & TAG_MASK][types[i]];
+				suffix = code >>> TAG_BITS;
+			} else {
+				text = Descriptions.utf8(code >>> TAG_BITS);
+				suffix = (code & TAG_MASK) == OWN_ACC_NO ? accNo : -1;
+			}
+			sink.row(ids[i], epochMillis[i], TYPES[types[i]], amounts[i], balances[i], text, 0, text.length, suffix);
+		}
+
+		@Override
+		public Transaction get(int i) {
+			if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index " + i + ", size " + size);
+			LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis[i]), ZoneOffset.UTC);
+			return Transaction.row(ids[i], timestamp, TYPES[types[i]], amounts[i], balances[i],
+					decode(descriptions[i], types[i], accNoSuffix));
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	/** Process-wide intern table for description texts and prefixes. */
+	private static final class Descriptions {
+		private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+		private static volatile String[] texts = new String[64];
+		private static volatile byte[][] utf8 = new byte[64][];
+		private static int count;       // guarded by Descriptions.class
+
+		static int idOf(String text) {
+			Integer id = IDS.get(text);
+			return id != null ? id : register(text);
+		}
+
+		private static synchronized int register(String text) {
+			Integer id = IDS.get(text);
+			if (id != null) return id;
+			String[] current = texts;
+			byte[][] currentUtf8 = utf8;
+			if (count == current.length) {
+				current = Arrays.copyOf(current, count * 2);
+				currentUtf8 = Arrays.copyOf(currentUtf8, count * 2);
+			}
+			current[count] = text;
+			currentUtf8[count] = text.getBytes(StandardCharsets.UTF_8);
+			utf8 = currentUtf8;
+			texts = current;            // volatile publish before the id becomes visible
+			IDS.put(text, count);
+			return count++;
+		}
+
+		static String text(int id) {
+			return texts[id];
+		}
+
+		static byte[] utf8(int id) {
+			return utf8[id];
+		}
+	}
+}
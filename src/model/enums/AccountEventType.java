@@ -0,0 +1,27 @@
+package model.enums;
+
+public enum AccountEventType {
+    ACCOUNT_CREATED("Account Created"),
+    CUSTOMER_DELETED("Customer Deleted"),
+    NAME_UPDATED("Name Updated"),
+    ADDRESS_UPDATED("Address Updated"),
+    DEPOSITED("Deposited"),
+    WITHDRAWN("Withdrawn"),
+    TRANSFERRED("Transferred"),
+    SNAPSHOT_FAILED("Snapshot Failed");
+
+    private final String displayName;
+
+    AccountEventType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,35 @@
+package model.enums;
+
+/** BankServices operations timed by {@code service.OperationMetrics}, named after their methods. */
+public enum BankOperation {
+    FIND_BY_ID("findById"),
+    FIND_BY_ACC_NO("findByAccNo"),
+    SEARCH_BY_NAME("searchByName"),
+    ADD_CUSTOMER("addCustomer"),
+    DELETE_CUSTOMER("deleteCustomer"),
+    UPDATE_NAME("updateName"),
+    UPDATE_ADDRESS("updateAddress"),
+    DEPOSIT("deposit"),
+    WITHDRAW("withdraw"),
+    TRANSFER("transfer"),
+    APPLY_BATCH("applyBatch"),
+    ADD_INTEREST("addInterestToAllAccounts"),
+    PRINT_STATEMENT("printStatement"),
+    GET_TRANSACTIONS("getTransactions"),
+    TAKE_SNAPSHOT("takeSnapshot");
+
+    private final String displayName;
+
+    BankOperation(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,78 @@
+package model.enums;
+
+import java.io.IOException;
+
+import exceptions.AccountNotFoundException;
+import exceptions.DailyLimitExceededException;
+import exceptions.DuplicateAccountException;
+import exceptions.InsufficientFundsException;
+import exceptions.InvalidAmountException;
+import exceptions.InvalidIFSCException;
+import exceptions.MinimumBalanceException;
+import exceptions.TransactionLimitExceededException;
+import exceptions.VelocityLimitExceededException;
+
+/**
+ * How a timed operation ended: normally, or with which business exception
+ * (or the {@link PostingStatus} standing in for it).
+ */
+public enum OperationOutcome {
+    SUCCESS("success"),
+    ACCOUNT_NOT_FOUND("AccountNotFoundException"),
+    DUPLICATE_ACCOUNT("DuplicateAccountException"),
+    INVALID_AMOUNT("InvalidAmountException"),
+    INSUFFICIENT_FUNDS("InsufficientFundsException"),
+    MIN_BALANCE("MinimumBalanceException"),
+    DAILY_LIMIT("DailyLimitExceededException"),
+    TRANSACTION_LIMIT("TransactionLimitExceededException"),
+    VELOCITY_LIMIT("VelocityLimitExceededException"),
+    INVALID_IFSC("InvalidIFSCException"),
+    IO_ERROR("IOException"),
+    OTHER_ERROR("other error");
+
+    private final String displayName;
+
+    OperationOutcome(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /** The outcome for an operation that threw {@code failure}, or SUCCESS for null. */
+    public static OperationOutcome of(Throwable failure) {
+        if (failure == null) return SUCCESS;
+        if (failure instanceof AccountNotFoundException) return ACCOUNT_NOT_FOUND;
+        if (failure instanceof DuplicateAccountException) return DUPLICATE_ACCOUNT;
+        if (failure instanceof InvalidAmountException) return INVALID_AMOUNT;
+        if (failure instanceof InsufficientFundsException) return INSUFFICIENT_FUNDS;
+        if (failure instanceof MinimumBalanceException) return MIN_BALANCE;
+        if (failure instanceof DailyLimitExceededException) return DAILY_LIMIT;
+        if (failure instanceof TransactionLimitExceededException) return TRANSACTION_LIMIT;
+        if (failure instanceof VelocityLimitExceededException) return VELOCITY_LIMIT;
+        if (failure instanceof InvalidIFSCException) return INVALID_IFSC;
+        if (failure instanceof IOException) return IO_ERROR;
+        return OTHER_ERROR;
+    }
+
+    /** The outcome for a posting that returned {@code status}. */
+    public static OperationOutcome of(PostingStatus status) {
+        return switch (status) {
+        case APPLIED -> SUCCESS;
+        case UNKNOWN_ACCOUNT -> ACCOUNT_NOT_FOUND;
+        case INVALID_AMOUNT -> INVALID_AMOUNT;
+        case INSUFFICIENT_FUNDS -> INSUFFICIENT_FUNDS;
+        case MIN_BALANCE -> MIN_BALANCE;
+        case DAILY_LIMIT -> DAILY_LIMIT;
+        case TRANSACTION_LIMIT -> TRANSACTION_LIMIT;
+        case VELOCITY_LIMIT -> VELOCITY_LIMIT;
+        case UNSUPPORTED_TYPE, FAILED -> OTHER_ERROR;
+        };
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
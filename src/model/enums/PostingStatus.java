@@ -0,0 +1,33 @@
+package model.enums;
+
+/**
+ * Outcome of one posting, from a batch, the pipeline or a {@code try...}
+ * call. Everything except {@link #APPLIED} means the posting changed nothing.
+ */
+public enum PostingStatus {
+    APPLIED("Applied"),
+    INVALID_AMOUNT("Amount must be positive"),
+    UNSUPPORTED_TYPE("Only deposits and withdrawals can be batched"),
+    UNKNOWN_ACCOUNT("Account not found"),
+    INSUFFICIENT_FUNDS("Insufficient funds"),
+    MIN_BALANCE("Would go below minimum balance"),
+    TRANSACTION_LIMIT("Per-transaction debit limit exceeded"),
+    DAILY_LIMIT("Daily debit limit exceeded"),
+    VELOCITY_LIMIT("Too many debits this minute"),
+    FAILED("Could not be applied");
+
+    private final String displayName;
+
+    PostingStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,118 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import exceptions.InvalidIFSCException;
+import exceptions.MinimumBalanceException;
+import model.entity.Account;
+import model.entity.Address;
+import model.entity.BankAccount;
+import model.entity.CurrentAccount;
+import model.entity.Customer;
+import model.entity.SavingsAccount;
+import model.entity.Transaction;
+import model.enums.AccountType;
+
+/**
+ * Binary encodings shared by the journal and snapshot files.
+ * Works on any {@link ByteBuffer}, heap or memory-mapped.
+ */
+final class Codec {
+
+    static final int MAX_STRING = 8 * 1024;
+
+    private Codec() {
+    }
+
+    /** Customer, address and account identity; the balance written is the account's current one. */
+    static void writeCustomer(ByteBuffer out, Customer customer) {
+        Account acc = (Account) customer.getCustAcc();
+        out.putInt(customer.getCustId());
+        writeString(out, customer.getCustName());
+        writeAddress(out, customer.getCustAddr());
+        out.putInt(acc.getAccNo());
+        writeString(out, acc.getIfscCode());
+        out.put((byte) acc.getAccType().ordinal());
+        out.putLong(acc.getBalance());
+        if (acc instanceof SavingsAccount savings) {
+            out.putDouble(savings.getInterestRate());
+        } else {
+            writeString(out, ((CurrentAccount) acc).getCompName());
+        }
+    }
+
+    static Customer readCustomer(ByteBuffer in) throws IOException {
+        int custId = in.getInt();
+        String name = readString(in);
+        Address address = readAddress(in);
+        int accNo = in.getInt();
+        String ifsc = readString(in);
+        AccountType type = AccountType.values()[in.get()];
+        long balance = in.getLong();
+        try {
+            BankAccount acc = type == AccountType.SAVINGS
+                    ? new SavingsAccount(accNo, ifsc, balance, type, in.getDouble())
+                    : new CurrentAccount(accNo, ifsc, balance, type, readString(in));
+            return new Customer(custId, name, acc, address);
+        } catch (InvalidIFSCException | MinimumBalanceException e) {
+            throw new IOException("Corrupt customer record " + custId, e);
+        }
+    }
+
+    static void writeAddress(ByteBuffer out, Address address) {
+        writeString(out, address.getCity());
+        writeString(out, address.getState());
+        out.putInt(address.getPinCode());
+    }
+
+    static Address readAddress(ByteBuffer in) {
+        return new Address(readString(in), readString(in), in.getInt());
+    }
+
+    /** id, time, type, amount, balanceAfter, description. */
+    static void writeTransaction(ByteBuffer out, Transaction txn) {
+        out.putLong(txn.getTransactionId());
+        out.putLong(toEpochMillis(txn.getTimestamp()));
+        out.put((byte) txn.getType().ordinal());
+        out.putLong(txn.getAmount());
+        out.putLong(txn.getBalanceAfter());
+        writeString(out, txn.getDescription());
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fromEpochMillis(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /** Months since year 0, or -1 for none. */
+    static void writePeriod(ByteBuffer out, YearMonth period) {
+        out.putInt(period == null ? -1 : period.getYear() * 12 + period.getMonthValue() - 1);
+    }
+
+    static YearMonth readPeriod(ByteBuffer in) {
+        int months = in.getInt();
+        return months < 0 ? null : YearMonth.of(months / 12, months % 12 + 1);
+    }
+
+    static void writeString(ByteBuffer out, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING) throw new IllegalArgumentException("Text too long to persist: " + bytes.length);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,230 @@
+package persistence;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import model.entity.HistoryArchive;
+import model.entity.StatementSink;
+import model.entity.Transaction;
+import model.enums.TransactionType;
+
+/**
+ * {@link HistoryArchive} backed by append-only segment files
+ * ({@code history-000000.seg}, ...) of at most 64 MB each.
+ *
+ * A batch is framed as {@code [int length][long previous][int count][rows]},
+ * rows encoded like journal transactions. Offsets are global:
+ * {@code segment * 64 MB + position}. Appends are serialized; reads use
+ * positional I/O and run concurrently with them. Nothing is forced per append:
+ * {@link #force} is called before a snapshot that refers to these offsets is
+ * published, and after a crash the journal replay re-spills whatever is missing.
+ */
+public final class HistorySegments implements HistoryArchive, AutoCloseable {
+
+    private static final long SEGMENT_BYTES = 64L << 20;
+    private static final int MAX_ROW = Codec.MAX_STRING + 64;
+    private static final int BATCH_HEADER = 16;   // length, previous, count
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path dir;                 // null for a temporary archive
+    private final boolean temporary;
+    private volatile FileChannel[] segments = new FileChannel[0];
+
+    // Guarded by this
+    private Path tempDir;
+    private long writePosition;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    private HistorySegments(Path dir, boolean temporary) {
+        this.dir = dir;
+        this.temporary = temporary;
+    }
+
+    /**
+     * Opens the archive in {@code dir}, continuing after its existing segments,
+     * or deleting them first when {@code reset} is true.
+     */
+    public static HistorySegments open(Path dir, boolean reset) throws IOException {
+        Files.createDirectories(dir);
+        HistorySegments archive = new HistorySegments(dir, false);
+        Path[] existing;
+        try (Stream<Path> files = Files.list(dir)) {
+            existing = files.filter(HistorySegments::isSegment).sorted().toArray(Path[]::new);
+        }
+        if (reset) {
+            for (Path file : existing) Files.delete(file);
+            return archive;
+        }
+        FileChannel[] channels = new FileChannel[existing.length];
+        for (int i = 0; i < existing.length; i++) {
+            if (!existing[i].equals(segmentFile(dir, i))) throw new IOException("Missing history segment " + i);
+            channels[i] = FileChannel.open(existing[i], StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        archive.segments = channels;
+        archive.writePosition = channels.length == 0 ? 0 : channels[channels.length - 1].size();
+        return archive;
+    }
+
+    /** An archive in a temporary directory that is created on first use and deleted on close or exit. */
+    public static HistorySegments temporary() {
+        return new HistorySegments(null, true);
+    }
+
+    // 1. Appends
+    @Override
+    public synchronized long append(long previous, List<Transaction> rows) throws IOException {
+        buffer.clear();
+        buffer.putInt(0);              // length, patched below
+        buffer.putLong(previous);
+        buffer.putInt(rows.size());
+        for (Transaction txn : rows) {
+            if (buffer.remaining() < MAX_ROW) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+            Codec.writeTransaction(buffer, txn);
+        }
+        int length = buffer.position();
+        buffer.putInt(0, length);
+
+        FileChannel[] current = segments;
+        if (current.length == 0 || writePosition + length > SEGMENT_BYTES) {
+            current = roll();
+        }
+        int segment = current.length - 1;
+        long offset = segment * SEGMENT_BYTES + writePosition;
+        buffer.flip();
+        long at = writePosition;
+        while (buffer.hasRemaining()) {
+            at += current[segment].write(buffer, at);
+        }
+        writePosition = at;
+        return offset;
+    }
+
+    private FileChannel[] roll() throws IOException {
+        FileChannel[] current = segments;
+        if (current.length > 0) current[current.length - 1].force(false);
+        Path file = segmentFile(directory(), current.length);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (temporary) file.toFile().deleteOnExit();
+        FileChannel[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = channel;
+        segments = next;
+        writePosition = 0;
+        return next;
+    }
+
+    private Path directory() throws IOException {
+        if (!temporary) return dir;
+        if (tempDir == null) {
+            tempDir = Files.createTempDirectory("pinnacle-history");
+            tempDir.toFile().deleteOnExit();
+        }
+        return tempDir;
+    }
+
+    /** Makes every batch appended so far durable. */
+    public synchronized void force() throws IOException {
+        FileChannel[] current = segments;
+        if (current.length > 0) current[current.length - 1].force(false);
+    }
+
+    // 2. Reads
+    @Override
+    public long read(long offset, RowSink sink) throws IOException {
+        ByteBuffer length = readAt(offset, 4);
+        ByteBuffer in = readAt(offset + 4, length.getInt() - 4);
+        long previous = in.getLong();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            long transactionId = in.getLong();
+            long millis = in.getLong();
+            TransactionType type = TYPES[in.get()];
+            long amount = in.getLong();
+            long balanceAfter = in.getLong();
+            sink.row(transactionId, Codec.fromEpochMillis(millis), type, amount, balanceAfter, Codec.readString(in));
+        }
+        return previous;
+    }
+
+    @Override
+    public long[] batchesSince(long head, long fromLocalMillis) throws IOException {
+        long[] newestFirst = new long[8];
+        int n = 0;
+        for (long offset = head; offset != NONE; ) {
+            if (n == newestFirst.length) newestFirst = Arrays.copyOf(newestFirst, n * 2);
+            newestFirst[n++] = offset;
+            // length, previous, count, then the first row's id and time
+            ByteBuffer header = readAt(offset, BATCH_HEADER + 16);
+            offset = header.getLong(4);
+            if (header.getLong(BATCH_HEADER + 8) < fromLocalMillis) break;
+        }
+        long[] oldestFirst = new long[n];
+        for (int i = 0; i < n; i++) oldestFirst[i] = newestFirst[n - 1 - i];
+        return oldestFirst;
+    }
+
+    @Override
+    public void export(long offset, StatementSink sink) throws IOException {
+        ByteBuffer length = readAt(offset, 4);
+        ByteBuffer in = readAt(offset + 4, length.getInt() - 4);
+        in.getLong();                       // previous
+        int count = in.getInt();
+        byte[] bytes = in.array();
+        for (int i = 0; i < count; i++) {
+            long transactionId = in.getLong();
+            long millis = in.getLong();
+            TransactionType type = TYPES[in.get()];
+            long amount = in.getLong();
+            long balanceAfter = in.getLong();
+            int textLength = Short.toUnsignedInt(in.getShort());
+            int at = in.position();
+            sink.row(transactionId, millis, type, amount, balanceAfter, bytes, in.arrayOffset() + at, textLength, -1);
+            in.position(at + textLength);
+        }
+    }
+
+    private ByteBuffer readAt(long offset, int bytes) throws IOException {
+        FileChannel[] current = segments;
+        int segment = (int) (offset / SEGMENT_BYTES);
+        if (offset < 0 || segment >= current.length) throw new IOException("No history batch at " + offset);
+        return readFully(current[segment], offset % SEGMENT_BYTES, bytes);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int bytes) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(bytes);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) throw new EOFException("Truncated history batch");
+        }
+        return buf.flip();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        FileChannel[] current = segments;
+        segments = new FileChannel[0];
+        for (FileChannel channel : current) channel.close();
+        if (temporary && tempDir != null) {
+            for (int i = 0; i < current.length; i++) Files.deleteIfExists(segmentFile(tempDir, i));
+            Files.deleteIfExists(tempDir);
+        }
+    }
+
+    private static Path segmentFile(Path dir, int index) {
+        return dir.resolve(String.format("history-%06d.seg", index));
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith("history-") && name.endsWith(".seg");
+    }
+}
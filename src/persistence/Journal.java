@@ -0,0 +1,344 @@
+package persistence;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.zip.CRC32;
+
+import model.entity.Address;
+import model.entity.Customer;
+import model.entity.Transaction;
+import model.enums.TransactionType;
+
+/**
+ * Append-only write-ahead journal for every customer and balance change.
+ *
+ * Records are framed as {@code [int length][byte kind][payload][int crc32]}.
+ * Appends only copy into an in-memory buffer; a single flusher thread writes
+ * whatever has accumulated and calls {@link FileChannel#force} once per batch
+ * (group commit). Callers acknowledge an operation only after
+ * {@link #awaitDurable(long)} returns for the position ({@code lsn}) of its record.
+ * On startup {@link #recover} replays every intact record and cuts off a torn tail.
+ */
+public final class Journal implements AutoCloseable {
+
+    /** Receives records during recovery, in the order they were logged. */
+    public interface Replay {
+        void customerCreated(Customer customer);
+
+        void customerDeleted(int custId);
+
+        void nameUpdated(int custId, String name);
+
+        void addressUpdated(int custId, Address address);
+
+        void transaction(int accNo, long transactionId, LocalDateTime timestamp, TransactionType type,
+                long amount, long balanceAfter, String description);
+
+        /** Follows the interest credit's {@link #transaction} call. */
+        void interestCredited(int accNo, YearMonth period);
+    }
+
+    private static final byte CUSTOMER_CREATED = 1;
+    private static final byte CUSTOMER_DELETED = 2;
+    private static final byte NAME_UPDATED = 3;
+    private static final byte ADDRESS_UPDATED = 4;
+    private static final byte TRANSACTION = 5;
+    private static final byte TRANSFER = 6;
+    private static final byte INTEREST = 7;
+
+    private static final int MAX_RECORD = 64 * 1024;
+    private static final int INITIAL_BUFFER = 1 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean sync;
+    private final Object lock = new Object();
+    private final CRC32 crc = new CRC32();
+
+    // Guarded by lock
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER);
+    private long appendedLsn;
+    private long durableLsn;
+    private boolean recovered;
+    private boolean closed;
+    private IOException failure;
+
+    private Thread flusher;
+
+    private Journal(Path file, boolean sync) throws IOException {
+        this.file = file;
+        this.sync = sync;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Opens (or creates) a journal file. With {@code sync} false the OS decides
+     * when data reaches disk, which survives a JVM crash but not a power loss.
+     */
+    public static Journal open(Path file, boolean sync) throws IOException {
+        return new Journal(file, sync);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // 1. Recovery
+    /**
+     * Replays every intact record at or after {@code fromLsn}, truncates anything
+     * after the last intact record, and starts accepting appends.
+     *
+     * @return the lsn just past the last replayed record
+     */
+    public long recover(long fromLsn, Replay replay) throws IOException {
+        synchronized (lock) {
+            if (recovered) throw new IllegalStateException("Journal already recovered");
+        }
+        long position = fromLsn;
+        channel.position(fromLsn);
+        InputStream raw = Channels.newInputStream(channel);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16));
+        byte[] body = new byte[256];
+        CRC32 check = new CRC32();
+        while (true) {
+            int length;
+            try {
+                length = in.readInt();
+                if (length <= 0 || length > MAX_RECORD) break;
+                if (body.length < length) body = new byte[Math.max(length, body.length * 2)];
+                in.readFully(body, 0, length);
+                check.reset();
+                check.update(body, 0, length);
+                if (in.readInt() != (int) check.getValue()) break;
+            } catch (EOFException torn) {
+                break;
+            }
+            dispatch(ByteBuffer.wrap(body, 0, length), replay);
+            position += 4 + length + 4;
+        }
+
+        channel.truncate(position);
+        channel.position(position);
+        synchronized (lock) {
+            appendedLsn = position;
+            durableLsn = position;
+            recovered = true;
+        }
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        return position;
+    }
+
+    private static void dispatch(ByteBuffer in, Replay replay) throws IOException {
+        byte kind = in.get();
+        switch (kind) {
+        case CUSTOMER_CREATED -> replay.customerCreated(Codec.readCustomer(in));
+        case CUSTOMER_DELETED -> replay.customerDeleted(in.getInt());
+        case NAME_UPDATED -> replay.nameUpdated(in.getInt(), Codec.readString(in));
+        case ADDRESS_UPDATED -> replay.addressUpdated(in.getInt(), Codec.readAddress(in));
+        case TRANSACTION -> readTransaction(in, replay);
+        case TRANSFER -> {
+            readTransaction(in, replay);
+            readTransaction(in, replay);
+        }
+        case INTEREST -> replay.interestCredited(readTransaction(in, replay), Codec.readPeriod(in));
+        default -> throw new IOException("Unknown journal record kind " + kind);
+        }
+    }
+
+    // 2. Appends (each returns the lsn to wait on)
+    public long logCustomerCreated(Customer customer) throws IOException {
+        return append(CUSTOMER_CREATED, out -> Codec.writeCustomer(out, customer));
+    }
+
+    public long logCustomerDeleted(int custId) throws IOException {
+        return append(CUSTOMER_DELETED, out -> out.putInt(custId));
+    }
+
+    public long logNameUpdated(int custId, String name) throws IOException {
+        return append(NAME_UPDATED, out -> {
+            out.putInt(custId);
+            Codec.writeString(out, name);
+        });
+    }
+
+    public long logAddressUpdated(int custId, Address address) throws IOException {
+        return append(ADDRESS_UPDATED, out -> {
+            out.putInt(custId);
+            Codec.writeAddress(out, address);
+        });
+    }
+
+    public long logTransaction(int accNo, Transaction txn) throws IOException {
+        return append(TRANSACTION, out -> writeTransaction(out, accNo, txn));
+    }
+
+    /** Logs both legs of a transfer as one record, so recovery sees both or neither. */
+    public long logTransfer(int fromAccNo, Transaction debit, int toAccNo, Transaction credit) throws IOException {
+        return append(TRANSFER, out -> {
+            writeTransaction(out, fromAccNo, debit);
+            writeTransaction(out, toAccNo, credit);
+        });
+    }
+
+    /** Logs an interest credit together with the period it settles. */
+    public long logInterest(int accNo, YearMonth period, Transaction credit) throws IOException {
+        return append(INTEREST, out -> {
+            writeTransaction(out, accNo, credit);
+            Codec.writePeriod(out, period);
+        });
+    }
+
+    /** Position just past the last appended (not necessarily durable) record. */
+    public long currentLsn() {
+        synchronized (lock) {
+            return appendedLsn;
+        }
+    }
+
+    // 3. Group commit
+    /**
+     * Blocks until everything up to {@code lsn} has been written (and forced, in sync mode).
+     */
+    public void awaitDurable(long lsn) throws IOException {
+        synchronized (lock) {
+            while (durableLsn < lsn) {
+                if (failure != null) throw new IOException("Journal write failed", failure);
+                if (closed) throw new IOException("Journal closed");
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted waiting for journal", e);
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long batchEnd;
+            synchronized (lock) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.position() == 0) return;
+                batch = pending;
+                pending = spare;
+                spare = batch;
+                batchEnd = appendedLsn;
+            }
+
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                if (sync) channel.force(false);
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            } finally {
+                batch.clear();
+            }
+
+            synchronized (lock) {
+                durableLsn = batchEnd;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (sync && channel.isOpen()) channel.force(true);
+        channel.close();
+    }
+
+    // 4. Framing
+    private interface Encoder {
+        void encode(ByteBuffer out);
+    }
+
+    private long append(byte kind, Encoder encoder) throws IOException {
+        synchronized (lock) {
+            if (!recovered) throw new IllegalStateException("Journal must be recovered before appending");
+            if (failure != null) throw new IOException("Journal write failed", failure);
+            if (closed) throw new IOException("Journal closed");
+            if (pending.remaining() < MAX_RECORD + 8) {
+                ByteBuffer bigger = ByteBuffer.allocate(pending.capacity() * 2);
+                pending.flip();
+                bigger.put(pending);
+                pending = bigger;
+            }
+
+            int start = pending.position();
+            pending.putInt(0);          // length, patched below
+            pending.put(kind);
+            try {
+                encoder.encode(pending);
+            } catch (RuntimeException e) {
+                pending.position(start);  // never leave a partial record behind
+                throw e;
+            }
+            int length = pending.position() - start - 4;
+            pending.putInt(start, length);
+            crc.reset();
+            crc.update(pending.array(), pending.arrayOffset() + start + 4, length);
+            pending.putInt((int) crc.getValue());
+
+            appendedLsn += 4 + length + 4;
+            lock.notifyAll();
+            return appendedLsn;
+        }
+    }
+
+    // 5. Codecs
+    private static void writeTransaction(ByteBuffer out, int accNo, Transaction txn) {
+        out.putInt(accNo);
+        Codec.writeTransaction(out, txn);
+    }
+
+    private static int readTransaction(ByteBuffer in, Replay replay) {
+        int accNo = in.getInt();
+        long transactionId = in.getLong();
+        LocalDateTime timestamp = Codec.fromEpochMillis(in.getLong());
+        TransactionType type = TransactionType.values()[in.get()];
+        long amount = in.getLong();
+        long balanceAfter = in.getLong();
+        replay.transaction(accNo, transactionId, timestamp, type, amount, balanceAfter, Codec.readString(in));
+        return accNo;
+    }
+}
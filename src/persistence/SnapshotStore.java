@@ -0,0 +1,185 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Consumer;
+
+import model.entity.Account;
+import model.entity.Customer;
+import model.entity.HistoryArchive;
+import model.entity.Transaction;
+import model.enums.TransactionType;
+
+/**
+ * Point-in-time images of all customers, written and read through
+ * memory-mapped windows of the snapshot file.
+ *
+ * Each account is copied while holding its monitor, one at a time, so postings
+ * continue during a snapshot. The image is therefore "fuzzy": it reflects at
+ * least every journal record before its {@code lsn}, and possibly some after.
+ * Replaying the journal tail from that {@code lsn} must skip what is already
+ * applied (BankServices does this by transaction id).
+ */
+public final class SnapshotStore {
+
+    private static final int MAGIC = 0x50424E53;    // "PBNS"
+    private static final int VERSION = 3;           // 2 adds the last interest period, 3 the history chain
+    private static final int HEADER = 32;           // magic, version, lsn, customers, dataEnd
+    private static final long WINDOW = 64L << 20;
+    private static final int MAX_ITEM = 64 * 1024;  // one customer header or one transaction
+
+    private SnapshotStore() {
+    }
+
+    /**
+     * Writes a snapshot to a temporary file and atomically renames it over {@code file}.
+     * Only each account's in-memory history is copied; older rows stay in
+     * {@code history}, which is forced first so the snapshot never refers to
+     * batches that are not yet on disk.
+     */
+    public static void write(Path file, long lsn, Iterable<Customer> customers, HistorySegments history)
+            throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        int count = 0;
+        long dataEnd;
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Window out = new Window(ch, FileChannel.MapMode.READ_WRITE, HEADER, Long.MAX_VALUE);
+            for (Customer customer : customers) {
+                Account acc = (Account) customer.getCustAcc();
+                synchronized (acc) {
+                    writeAccount(out, customer, acc);
+                }
+                count++;
+            }
+            dataEnd = out.position();
+            out.force();
+
+            MappedByteBuffer header = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+            header.putInt(MAGIC).putInt(VERSION).putLong(lsn).putInt(count).putLong(dataEnd);
+            header.force();
+            try {
+                ch.truncate(dataEnd);   // drop the unused tail of the last window
+            } catch (IOException stillMapped) {
+                // harmless: readers stop at dataEnd
+            }
+        }
+        if (history != null) history.force();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads every customer in the snapshot into {@code sink}.
+     *
+     * @return the journal lsn to resume replay from
+     */
+    public static long read(Path file, Consumer<Customer> sink) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER) throw new IOException("Snapshot too short: " + file);
+            ByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            int magic = header.getInt();
+            int version = header.getInt();
+            if (magic != MAGIC || version < 1 || version > VERSION) {
+                throw new IOException("Not a snapshot (or unsupported version): " + file);
+            }
+            long lsn = header.getLong();
+            int count = header.getInt();
+            long dataEnd = header.getLong();
+
+            Window in = new Window(ch, FileChannel.MapMode.READ_ONLY, HEADER, dataEnd);
+            for (int i = 0; i < count; i++) {
+                sink.accept(readAccount(in, version));
+            }
+            return lsn;
+        }
+    }
+
+    private static void writeAccount(Window out, Customer customer, Account acc) throws IOException {
+        ByteBuffer buf = out.ensure(MAX_ITEM);
+        Codec.writeCustomer(buf, customer);
+        buf.putLong(acc.getTodayDebitTotal());
+        buf.putLong(acc.getLastDebitDate().toEpochDay());
+        Codec.writePeriod(buf, acc.getLastInterestPeriod());
+        buf.putLong(acc.getArchivedHistoryHead());
+        List<Transaction> history = acc.getTransactions();
+        buf.putInt(history.size());
+        for (Transaction txn : history) {
+            Codec.writeTransaction(out.ensure(MAX_ITEM), txn);
+        }
+    }
+
+    private static Customer readAccount(Window in, int version) throws IOException {
+        ByteBuffer buf = in.ensure(MAX_ITEM);
+        Customer customer = Codec.readCustomer(buf);
+        Account acc = (Account) customer.getCustAcc();
+        long todayDebitTotal = buf.getLong();
+        LocalDate lastDebitDate = LocalDate.ofEpochDay(buf.getLong());
+        YearMonth lastInterestPeriod = version >= 2 ? Codec.readPeriod(buf) : null;
+        long archivedHistoryHead = version >= 3 ? buf.getLong() : HistoryArchive.NONE;
+        int size = buf.getInt();
+        for (int i = 0; i < size; i++) {
+            buf = in.ensure(MAX_ITEM);
+            long transactionId = buf.getLong();
+            long millis = buf.getLong();
+            TransactionType type = TransactionType.values()[buf.get()];
+            long amount = buf.getLong();
+            long balanceAfter = buf.getLong();
+            acc.restoreTransaction(transactionId, Codec.fromEpochMillis(millis), type, amount, balanceAfter,
+                    Codec.readString(buf));
+        }
+        acc.restoreDebitState(todayDebitTotal, lastDebitDate);
+        acc.restoreInterestPeriod(lastInterestPeriod);
+        acc.restoreArchivedHistoryHead(archivedHistoryHead);
+        return customer;
+    }
+
+    /**
+     * A sliding mapped window: {@link #ensure} remaps at the current file position
+     * whenever fewer than the requested bytes remain, so items never straddle windows.
+     */
+    private static final class Window {
+        private final FileChannel ch;
+        private final FileChannel.MapMode mode;
+        private final long limit;
+        private MappedByteBuffer buf;
+        private long base;
+
+        Window(FileChannel ch, FileChannel.MapMode mode, long start, long limit) throws IOException {
+            this.ch = ch;
+            this.mode = mode;
+            this.limit = limit;
+            map(start);
+        }
+
+        ByteBuffer ensure(int bytes) throws IOException {
+            if (buf.remaining() < bytes && base + buf.limit() < limit) {
+                if (mode == FileChannel.MapMode.READ_WRITE) buf.force();
+                map(position());
+            }
+            return buf;
+        }
+
+        long position() {
+            return base + buf.position();
+        }
+
+        void force() {
+            buf.force();
+        }
+
+        private void map(long at) throws IOException {
+            long size = Math.min(WINDOW, limit - at);
+            buf = ch.map(mode, at, size);
+            base = at;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+
+import model.entity.Account;
+import model.entity.BankAccount;
+import model.entity.Customer;
+import model.entity.IdempotencyKey;
+import model.entity.PostingResult;
+import model.entity.Transaction;
+import model.enums.PostingStatus;
+import service.BankServices;
+import service.CustomerImporter;
+import service.Dashboard;
+import util.BankConstants;
+import util.Money;
+import util.VirtualThreads;
+
+/**
+ * TCP front end for {@link BankServices} speaking a line protocol: one
+ * request per line, words separated by spaces, amounts in rupees. Every reply
+ * starts with {@code OK} or {@code ERR <message>}.
+ *
+ * <pre>
+ * PING                          OK PONG
+ * CREATE &lt;import CSV line&gt;      OK &lt;custId&gt;       (same columns as CustomerImporter)
+ * DEPOSIT &lt;custId&gt; &lt;amount&gt;     OK &lt;balance&gt;
+ * WITHDRAW &lt;custId&gt; &lt;amount&gt;    OK &lt;balance&gt;
+ * TRANSFER &lt;from&gt; &lt;to&gt; &lt;amount&gt; OK
+ * LOOKUP &lt;custId&gt;               OK &lt;custId&gt; &lt;accNo&gt; &lt;balance&gt; &lt;name&gt;
+ * STATEMENT &lt;custId&gt; [n]        OK &lt;rows&gt;, then one line per row:
+ *                               id,yyyy-MM-dd HH:mm:ss,TYPE,amount,balance,description
+ * DASHBOARD                     OK &lt;customers&gt; &lt;total&gt; &lt;average&gt; &lt;highBalance&gt;
+ * QUIT                          OK, then the server closes the connection
+ * </pre>
+ *
+ * DEPOSIT, WITHDRAW and TRANSFER accept a trailing {@code KEY=<uuid>}: a retry
+ * with the same key gets the first attempt's outcome without moving money again.
+ * Keyed or not they use the status forms ({@link BankServices#tryWithdraw}
+ * etc.), so a decline replies with its short reason ({@code ERR Insufficient
+ * funds}) and costs no exception.
+ *
+ * Each connection is served by its own thread, a virtual thread where the
+ * runtime has them, so a blocked client costs no pooled worker. Replies are
+ * flushed only when no further request is already buffered, so a client may
+ * pipeline requests.
+ */
+public final class BankServer implements AutoCloseable {
+
+    private static final int BACKLOG = 4096;
+    private static final DateTimeFormatter ROW_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final BankServices bank;
+    private final ServerSocket socket;
+    private final ExecutorService connections = VirtualThreads.newPerTaskExecutor("bank-conn");
+
+    private BankServer(BankServices bank, ServerSocket socket) {
+        this.bank = bank;
+        this.socket = socket;
+    }
+
+    /** Binds {@code port} (0 picks a free one); call {@link #serve} to start accepting. */
+    public static BankServer bind(BankServices bank, int port) throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(new InetSocketAddress(port), BACKLOG);
+        return new BankServer(bank, socket);
+    }
+
+    public int port() {
+        return socket.getLocalPort();
+    }
+
+    /** Accepts connections on the calling thread until {@link #close} is called. */
+    public void serve() throws IOException {
+        while (!socket.isClosed()) {
+            Socket client;
+            try {
+                client = socket.accept();
+            } catch (SocketException closed) {
+                if (socket.isClosed()) return;
+                throw closed;
+            }
+            connections.execute(() -> handle(client));
+        }
+    }
+
+    /** Starts {@link #serve} on a background daemon thread. */
+    public BankServer start() {
+        Thread acceptor = new Thread(() -> {
+            try {
+                serve();
+            } catch (IOException e) {
+                // the listening socket failed; nothing left to accept
+            }
+        }, "bank-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        connections.shutdownNow();
+    }
+
+    private void handle(Socket client) {
+        try (client;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                Writer out = new BufferedWriter(
+                        new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+            client.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                boolean quit = line.trim().equalsIgnoreCase("QUIT");
+                if (quit) {
+                    out.write("OK\n");
+                } else {
+                    execute(line, out);
+                }
+                if (quit || !in.ready()) out.flush();
+                if (quit) return;
+            }
+        } catch (IOException e) {
+            // client went away; its connection is simply dropped
+        }
+    }
+
+    private void execute(String line, Writer out) throws IOException {
+        String[] words = line.trim().split("\\s+");
+        try {
+            IdempotencyKey key = null;
+            String last = words[words.length - 1];
+            if (words.length > 1 && last.regionMatches(true, 0, "KEY=", 0, 4)) {
+                key = IdempotencyKey.parse(last.substring(4));
+                words = Arrays.copyOf(words, words.length - 1);
+            }
+            String command = words[0].toUpperCase(Locale.ROOT);
+            switch (command) {
+            case "PING" -> out.write("OK PONG\n");
+            case "CREATE" -> {
+                String csv = line.trim().substring(words[0].length()).trim();
+                Customer customer = CustomerImporter.parse(csv);
+                bank.addCustomer(customer);
+                reply(out, Integer.toString(customer.getCustId()));
+            }
+            case "DEPOSIT" -> {
+                int custId = intArg(words, 1);
+                long amount = amountArg(words, 2);
+                PostingResult result = key == null ? bank.tryDeposit(custId, amount)
+                        : bank.tryDeposit(custId, amount, key);
+                if (result.isApplied()) reply(out, result.balance().format());
+                else declined(out, result.status());
+            }
+            case "WITHDRAW" -> {
+                int custId = intArg(words, 1);
+                long amount = amountArg(words, 2);
+                PostingResult result = key == null ? bank.tryWithdraw(custId, amount)
+                        : bank.tryWithdraw(custId, amount, key);
+                if (result.isApplied()) reply(out, result.balance().format());
+                else declined(out, result.status());
+            }
+            case "TRANSFER" -> {
+                int from = intArg(words, 1);
+                int to = intArg(words, 2);
+                long amount = amountArg(words, 3);
+                PostingResult result = key == null ? bank.tryTransfer(from, to, amount)
+                        : bank.tryTransfer(from, to, amount, key);
+                if (result.isApplied()) out.write("OK\n");
+                else declined(out, result.status());
+            }
+            case "LOOKUP" -> {
+                Customer cust = bank.findById(intArg(words, 1));
+                BankAccount acc = cust.getCustAcc();
+                reply(out, cust.getCustId() + " " + acc.getAccNo() + " " + Money.format(acc.getBalance()) + " "
+                        + cust.getCustName());
+            }
+            case "STATEMENT" -> statement(words, out);
+            case "DASHBOARD" -> {
+                Dashboard d = bank.getDashboard(0);
+                reply(out, d.customers() + " " + d.totalBalance().format() + " " + d.averageBalance().format() + " "
+                        + d.highBalanceAccounts());
+            }
+            default -> throw new IllegalArgumentException("Unknown command: " + words[0]);
+            }
+        } catch (Exception e) {
+            // Declines, bad input and journal failures alike; the connection stays usable
+            error(out, e);
+        }
+    }
+
+    private void statement(String[] words, Writer out) throws Exception {
+        Customer cust = bank.findById(intArg(words, 1));
+        int count = words.length > 2 ? Math.min(intArg(words, 2), BankConstants.MAX_STATEMENT)
+                : BankConstants.MAX_STATEMENT;
+        List<Transaction> history = ((Account) cust.getCustAcc()).getTransactions();
+        int from = Math.max(0, history.size() - Math.max(0, count));
+        StringBuilder sb = new StringBuilder("OK ").append(history.size() - from).append('\n');
+        for (int i = from; i < history.size(); i++) {
+            Transaction txn = history.get(i);
+            sb.append(txn.getTransactionId()).append(',')
+              .append(ROW_TIME.format(txn.getTimestamp())).append(',')
+              .append(txn.getType().name()).append(',')
+              .append(Money.format(txn.getAmount())).append(',')
+              .append(Money.format(txn.getBalanceAfter())).append(',')
+              .append(txn.getDescription()).append('\n');
+        }
+        out.write(sb.toString());
+    }
+
+    private static void reply(Writer out, String result) throws IOException {
+        out.write("OK ");
+        out.write(result);
+        out.write('\n');
+    }
+
+    private static void error(Writer out, Exception e) throws IOException {
+        String message = e.getMessage() != null ? e.getMessage() : e.toString();
+        out.write("ERR ");
+        out.write(message.replace('\n', ' '));
+        out.write('\n');
+    }
+
+    // Postings report declines as statuses, so no exception is built for them
+    private static void declined(Writer out, PostingStatus status) throws IOException {
+        out.write("ERR ");
+        out.write(status.getDisplayName());
+        out.write('\n');
+    }
+
+    private static int intArg(String[] words, int i) {
+        if (i >= words.length) throw new IllegalArgumentException("Missing argument " + i + " for " + words[0]);
+        return Integer.parseInt(words[i]);
+    }
+
+    private static long amountArg(String[] words, int i) {
+        if (i >= words.length) throw new IllegalArgumentException("Missing amount for " + words[0]);
+        return Money.parse(words[i]);
+    }
+}
@@ -0,0 +1,15 @@
+package service;
+
+import model.entity.AccountEvent;
+
+/**
+ * Receives {@link AccountEvent}s from {@link BankServices}, on the thread that
+ * made the change and after its account locks are released. Implementations
+ * should hand the event off rather than do slow work (such as console output)
+ * inline; an exception thrown here is ignored.
+ */
+@FunctionalInterface
+public interface AccountEventListener {
+
+    void onEvent(AccountEvent event);
+}
@@ -1,36 +1,245 @@
 package service;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import exceptions.*;
 import model.entity.*;
+import model.enums.AccountEventType;
+import model.enums.AccountType;
+import model.enums.BankOperation;
+import model.enums.PostingStatus;
+import model.enums.TransactionType;
+import persistence.HistorySegments;
+import persistence.Journal;
+import persistence.SnapshotStore;
 import ui.InputHandler;
 import util.BankConstants;
+import util.IntIndex;
+import util.Money;
 
-public class BankServices {
-    private final List<Customer> custlist = new ArrayList<>();
-    private final Map<Integer, Customer> custIdCache = new HashMap<>();
-    private final Map<Integer, Customer> accNoCache = new HashMap<>();
+/**
+ * Thread-safe banking facade. Customers are indexed by custId and accNo in
+ * primitive-keyed {@link IntIndex} maps (lock-free lookups), and by name in an
+ * n-gram {@link NameIndex}; balance changes are serialized per account by the account's
+ * own monitor, so independent accounts can be served from many threads at once.
+ * Dashboard figures are kept up to date as balances change ({@link #getDashboard}).
+ * Nothing here writes to the console on the posting paths: outcomes are
+ * published as {@link AccountEvent}s to registered listeners, and with none
+ * registered publishing costs a single volatile read.
+ * All amounts are exact paise (see {@link Money}).
+ *
+ * With a {@link Journal}, every change is appended to it while the affected
+ * account monitors are held (so the log order matches the apply order) and the
+ * call returns only once the record is durable. The constructor rebuilds all
+ * state from the latest snapshot (if any) plus the journal records after it.
+ */
+public class BankServices implements AutoCloseable {
+    private static final int DASHBOARD_TOP = 3;
+
+    private final IntIndex<Customer> custIdIndex = new IntIndex<>();
+    private final IntIndex<Customer> accNoIndex = new IntIndex<>();
+    private final NameIndex nameIndex = new NameIndex();
+    private final DashboardMetrics metrics = new DashboardMetrics();
+    private final LimitPolicy limitPolicy = new LimitPolicy();
+    private final OperationMetrics operations = new OperationMetrics();
+    private final Journal journal;        // null when running purely in memory
+    private final Path snapshotFile;      // null when snapshots are disabled
+    private final HistorySegments history;
+    private final Object snapshotLock = new Object();
+    private final IdempotencyCache idempotency = new IdempotencyCache(BankConstants.IDEMPOTENCY_KEYS,
+            TimeUnit.SECONDS.toNanos(BankConstants.IDEMPOTENCY_TTL_SECONDS));
+    private ScheduledExecutorService snapshotScheduler;
+    private volatile AccountEventListener[] listeners = new AccountEventListener[0];
+
+    public BankServices() {
+        this.journal = null;
+        this.snapshotFile = null;
+        this.history = HistorySegments.temporary();
+    }
+
+    public BankServices(Journal journal) throws IOException {
+        this(journal, null);
+    }
+
+    /**
+     * Older statement history is archived next to the snapshot, in
+     * {@code history/}; without a snapshot file it goes to a temporary directory.
+     */
+    public BankServices(Journal journal, Path snapshotFile) throws IOException {
+        this.journal = journal;
+        this.snapshotFile = snapshotFile;
+        boolean haveSnapshot = snapshotFile != null && Files.exists(snapshotFile);
+        // A full journal replay re-archives everything, so start the archive afresh
+        this.history = snapshotFile == null ? HistorySegments.temporary()
+                : HistorySegments.open(snapshotFile.resolveSibling("history"), !haveSnapshot);
+        JournalReplay replay = new JournalReplay();
+        long fromLsn = 0L;
+        if (haveSnapshot) {
+            fromLsn = SnapshotStore.read(snapshotFile, replay::customerCreated);
+        }
+        journal.recover(fromLsn, replay);
+    }
 
     public void addAccount(InputHandler input) throws Exception {
-        Customer customer = input.createCustomer();
-        if (hasDuplicate(customer)) {
-            throw new DuplicateAccountException(customer.getCustAcc().getAccNo());
+        addCustomer(input.createCustomer());
+    }
+
+    /**
+     * Registers a fully built customer. Both indexes are claimed atomically so
+     * two threads racing on the same custId or accNo cannot both succeed.
+     */
+    public void addCustomer(Customer customer) throws DuplicateAccountException, IOException {
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            long lsn = register(customer);
+            if (lsn < 0) {
+                throw new DuplicateAccountException(customer.getCustAcc().getAccNo());
+            }
+            awaitDurable(lsn);
+            BankAccount acc = customer.getCustAcc();
+            publish(AccountEventType.ACCOUNT_CREATED, customer.getCustId(), acc.getAccNo(), 0, acc.getBalance(), 0,
+                    customer.getCustName());
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.ADD_CUSTOMER, started, failure);
+        }
+    }
+
+    /**
+     * Bulk form of {@link #addCustomer}: registers each customer in order and
+     * waits for the journal once, at the end. No events are published.
+     *
+     * @return {@code added[i]} is false when {@code customers.get(i)} reused an existing custId or accNo
+     */
+    public boolean[] addCustomers(List<Customer> customers) throws IOException {
+        boolean[] added = new boolean[customers.size()];
+        long lsn = 0;
+        for (int i = 0; i < added.length; i++) {
+            long at = register(customers.get(i));
+            added[i] = at >= 0;
+            lsn = Math.max(lsn, at);
+        }
+        awaitDurable(lsn);
+        return added;
+    }
+
+    /** Claims both indexes and logs the creation; returns the lsn to await, or -1 for a duplicate. */
+    private long register(Customer customer) throws IOException {
+        BankAccount acc = customer.getCustAcc();
+        int accNo = acc.getAccNo();
+        long lsn = 0;
+        // Hold the account so no posting to it can be logged before its creation
+        synchronized (acc) {
+            if (custIdIndex.putIfAbsent(customer.getCustId(), customer) != null) {
+                return -1;
+            }
+            if (accNoIndex.putIfAbsent(accNo, customer) != null) {
+                custIdIndex.remove(customer.getCustId(), customer);
+                return -1;
+            }
+            if (journal != null) {
+                try {
+                    lsn = journal.logCustomerCreated(customer);
+                } catch (IOException | RuntimeException e) {
+                    custIdIndex.remove(customer.getCustId(), customer);
+                    accNoIndex.remove(accNo, customer);
+                    throw e;
+                }
+            }
+            track((Account) acc);
+            nameIndex.add(customer.getCustId(), customer.getCustName());
+        }
+        return lsn;
+    }
+
+    public void deleteCustomer(int custId) throws AccountNotFoundException, IOException {
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            Customer cust = customer(custId);
+            long lsn = 0;
+            synchronized (cust.getCustAcc()) {
+                if (!custIdIndex.remove(custId, cust)) {
+                    throw new AccountNotFoundException(custId);
+                }
+                accNoIndex.remove(cust.getCustAcc().getAccNo(), cust);
+                nameIndex.remove(custId);
+                untrack((Account) cust.getCustAcc());
+                if (journal != null) {
+                    lsn = journal.logCustomerDeleted(custId);
+                }
+            }
+            awaitDurable(lsn);
+            publish(AccountEventType.CUSTOMER_DELETED, custId, cust.getCustAcc().getAccNo(), 0, 0, 0,
+                    cust.getCustName());
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.DELETE_CUSTOMER, started, failure);
         }
-        custlist.add(customer);
-        updateCaches(customer);
-        System.out.println("✅ Account created: " + customer.getCustName());
     }
 
-    public void deleteCustomer(int custId) throws AccountNotFoundException {
-        Customer cust = findById(custId);
-        custlist.remove(cust);
-        custIdCache.remove(custId);
-        accNoCache.remove(cust.getCustAcc().getAccNo());
+    public void updateName(int custId, String name) throws AccountNotFoundException, IOException {
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            Customer cust = customer(custId);
+            long lsn = 0;
+            synchronized (cust.getCustAcc()) {
+                cust.setCustName(name);
+                nameIndex.rename(custId, cust.getCustName());
+                if (journal != null) {
+                    lsn = journal.logNameUpdated(custId, cust.getCustName());
+                }
+            }
+            awaitDurable(lsn);
+            publish(AccountEventType.NAME_UPDATED, custId, cust.getCustAcc().getAccNo(), 0, 0, 0, cust.getCustName());
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.UPDATE_NAME, started, failure);
+        }
+    }
+
+    public void updateAddress(int custId, Address address) throws AccountNotFoundException, IOException {
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            Customer cust = customer(custId);
+            long lsn = 0;
+            synchronized (cust.getCustAcc()) {
+                cust.setCustAddr(address);
+                if (journal != null) {
+                    lsn = journal.logAddressUpdated(custId, address);
+                }
+            }
+            awaitDurable(lsn);
+            publish(AccountEventType.ADDRESS_UPDATED, custId, cust.getCustAcc().getAccNo(), 0, 0, 0, null);
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.UPDATE_ADDRESS, started, failure);
+        }
     }
 
     public void displayAllAccounts() {
-        if (custlist.isEmpty()) {
+        int total = custIdIndex.size();
+        if (total == 0) {
             System.out.println("No accounts found!");
             return;
         }
@@ -38,160 +247,738 @@ public class BankServices {
         System.out.println("ID | Name          | Account              | City");
         System.out.println("-----------------------------------------------");
         
-        List<Customer> displayList = custlist.stream()
-            .limit(BankConstants.MAX_DISPLAY_ACCOUNTS)
-            .collect(Collectors.toList());
-            
-        displayList.forEach(c -> 
+        int shown = 0;
+        for (Customer c : custIdIndex) {
+            if (shown++ == BankConstants.MAX_DISPLAY_ACCOUNTS) break;
             System.out.printf("%-2d | %-12s | %-22s | %s%n", 
-                c.getCustId(), c.getCustName(), c.getCustAcc(), c.getCustAddr().getCity()));
+                c.getCustId(), c.getCustName(), c.getCustAcc(), c.getCustAddr().getCity());
+        }
                 
-        if (custlist.size() > BankConstants.MAX_DISPLAY_ACCOUNTS) {
-            System.out.println("... and " + (custlist.size() - BankConstants.MAX_DISPLAY_ACCOUNTS) + " more");
+
+        if (total > BankConstants.MAX_DISPLAY_ACCOUNTS) {
+            System.out.println("... and " + (total - BankConstants.MAX_DISPLAY_ACCOUNTS) + " more");
         }
     }
 
     public Customer findById(int id) throws AccountNotFoundException {
-        Customer cached = custIdCache.get(id);
-        if (cached != null) {
-            return cached;
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            return customer(id);
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.FIND_BY_ID, started, failure);
         }
-        
-        Customer customer = custlist.stream()
-            .filter(c -> c.getCustId() == id)
-            .findFirst()
-            .orElseThrow(() -> new AccountNotFoundException(id));
-        
-        custIdCache.put(id, customer);
-        return customer;
     }
 
     public Customer findByAccNo(int accNo) throws AccountNotFoundException {
-        Customer cached = accNoCache.get(accNo);
-        if (cached != null) {
-            return cached;
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            Customer customer = accNoIndex.get(accNo);
+            if (customer == null) {
+                throw new AccountNotFoundException(accNo);
+            }
+            return customer;
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.FIND_BY_ACC_NO, started, failure);
         }
-        
-        Customer customer = custlist.stream()
-            .filter(c -> c.getCustAcc().getAccNo() == accNo)
-            .findFirst()
-            .orElseThrow(() -> new AccountNotFoundException(accNo));
-        
-        accNoCache.put(accNo, customer);
-        return customer;
     }
 
+    /**
+     * Finds customers whose name contains {@code query} (case-insensitive),
+     * best matches first: exact name, name prefix, word prefix, then anywhere.
+     * Queries of one or two characters match word prefixes only.
+     */
+    public List<Customer> searchByName(String query, int limit) {
+        long started = operations.start();
+        RuntimeException failure = null;
+        try {
+            return nameIndex.search(query, limit, custIdIndex::get);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.SEARCH_BY_NAME, started, failure);
+        }
+    }
 
-    public void deposit(int custId, double amount) throws Exception {
-        Customer cust = findById(custId);
-        cust.getCustAcc().deposit(amount);
+    /**
+     * Sets the debit limits for every {@code type} account that has none of
+     * its own, from the next debit on. Limits are configuration and are not
+     * journaled: set them again after a restart.
+     */
+    public void setDebitLimits(AccountType type, DebitLimits limits) {
+        limitPolicy.setForType(type, limits);
     }
 
-    public void withdraw(int custId, double amount) throws Exception {
-        Customer cust = findById(custId);
-        cust.getCustAcc().withdraw(amount);
+    /** Gives one customer's account its own debit limits; null goes back to the type's. */
+    public void setDebitLimits(int custId, DebitLimits limits) throws AccountNotFoundException {
+        ((Account) customer(custId).getCustAcc()).setDebitLimits(limits);
     }
 
-    public void transfer(int fromCustId, int toCustId, double amount) throws Exception {
-        if (fromCustId == toCustId) {
-            throw new IllegalArgumentException("Cannot transfer to same account");
+    public DebitLimits getDebitLimits(int custId) throws AccountNotFoundException {
+        return ((Account) customer(custId).getCustAcc()).getDebitLimits();
+    }
+
+    /** Returns the balance right after this deposit, whatever other postings follow it. */
+    public long deposit(int custId, long amount) throws Exception {
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            Account acc = (Account) customer(custId).getCustAcc();
+            long lsn;
+            long balance;
+            synchronized (acc) {
+                acc.deposit(amount);
+                balance = acc.getBalance();
+                lsn = logLastTransaction(acc);
+            }
+            awaitDurable(lsn);
+            publish(AccountEventType.DEPOSITED, custId, acc.getAccNo(), amount, balance, 0, null);
+            return balance;
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.DEPOSIT, started, failure);
         }
+    }
 
-        Customer fromCust = findById(fromCustId);
-        Customer toCust = findById(toCustId);
+    /** Returns the balance right after this withdrawal. */
+    public long withdraw(int custId, long amount) throws Exception {
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            Account acc = (Account) customer(custId).getCustAcc();
+            long lsn;
+            long balance;
+            synchronized (acc) {
+                acc.withdraw(amount);
+                balance = acc.getBalance();
+                lsn = logLastTransaction(acc);
+            }
+            awaitDurable(lsn);
+            publish(AccountEventType.WITHDRAWN, custId, acc.getAccNo(), amount, balance, 0, null);
+            return balance;
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.WITHDRAW, started, failure);
+        }
+    }
 
-        BankAccount fromAcc = fromCust.getCustAcc();
-        BankAccount toAcc = toCust.getCustAcc();
+    /**
+     * {@link #deposit(int, long)} reporting a decline (including an unknown
+     * custId) as a status instead of an exception, for paths where declines
+     * are routine; the posting, journal record and event are the same. An
+     * applied result carries the balance right after the deposit.
+     *
+     * @throws IOException if the journal fails; the deposit is applied in memory
+     */
+    public PostingResult tryDeposit(int custId, long amount) throws IOException {
+        long started = operations.start();
+        try {
+            PostingResult result = post(TransactionType.DEPOSIT, custId, amount);
+            operations.record(BankOperation.DEPOSIT, started, result.status());
+            return result;
+        } catch (IOException | RuntimeException e) {
+            operations.record(BankOperation.DEPOSIT, started, e);
+            throw e;
+        }
+    }
 
-        System.out.println("\n💰 TRANSFERRING ₹" + String.format("%.2f", amount));
-        System.out.println("From: " + fromCust.getCustName() + " (Acc: " + fromAcc.getAccNo() + ")");
-        System.out.println("To:   " + toCust.getCustName() + " (Acc: " + toAcc.getAccNo() + ")");
+    /** See {@link #tryDeposit(int, long)}. */
+    public PostingResult tryWithdraw(int custId, long amount) throws IOException {
+        long started = operations.start();
+        try {
+            PostingResult result = post(TransactionType.WITHDRAWAL, custId, amount);
+            operations.record(BankOperation.WITHDRAW, started, result.status());
+            return result;
+        } catch (IOException | RuntimeException e) {
+            operations.record(BankOperation.WITHDRAW, started, e);
+            throw e;
+        }
+    }
 
-        boolean withdrawn = false;
+    // tryDeposit and tryWithdraw: the posting under the account monitor, then its journal wait and event
+    private PostingResult post(TransactionType type, int custId, long amount) throws IOException {
+        Customer cust = custIdIndex.get(custId);
+        if (cust == null) return PostingResult.declined(PostingStatus.UNKNOWN_ACCOUNT);
+        Account acc = (Account) cust.getCustAcc();
+        long lsn;
+        long balance;
+        synchronized (acc) {
+            PostingStatus status = type == TransactionType.DEPOSIT ? acc.tryDeposit(amount) : acc.tryWithdraw(amount);
+            if (status != PostingStatus.APPLIED) return PostingResult.declined(status);
+            balance = acc.getBalance();
+            lsn = logLastTransaction(acc);
+        }
+        awaitDurable(lsn);
+        publish(type == TransactionType.DEPOSIT ? AccountEventType.DEPOSITED : AccountEventType.WITHDRAWN, custId,
+                acc.getAccNo(), amount, balance, 0, null);
+        return PostingResult.applied(balance);
+    }
+
+    /**
+     * Keyed forms of deposit, withdraw and transfer: a retry with the same
+     * {@code key} within {@link BankConstants#IDEMPOTENCY_TTL_SECONDS} returns
+     * (or rethrows) the first call's outcome instead of moving money again,
+     * also when the retry arrives while the first call is still running. Keys
+     * are remembered in memory only, so they do not survive a restart.
+     *
+     * @throws IllegalArgumentException if {@code key} was already used for a different request
+     */
+    public long deposit(int custId, long amount, IdempotencyKey key) throws Exception {
+        return idempotency.run(key, fingerprint(TransactionType.DEPOSIT, false, custId, 0, amount),
+                () -> deposit(custId, amount));
+    }
+
+    /** See {@link #deposit(int, long, IdempotencyKey)}. */
+    public long withdraw(int custId, long amount, IdempotencyKey key) throws Exception {
+        return idempotency.run(key, fingerprint(TransactionType.WITHDRAWAL, false, custId, 0, amount),
+                () -> withdraw(custId, amount));
+    }
+
+    /** See {@link #deposit(int, long, IdempotencyKey)}. */
+    public void transfer(int fromCustId, int toCustId, long amount, IdempotencyKey key) throws Exception {
+        idempotency.run(key, fingerprint(TransactionType.TRANSFER_OUT, false, fromCustId, toCustId, amount), () -> {
+            transfer(fromCustId, toCustId, amount);
+            return null;
+        });
+    }
+
+    /**
+     * Keyed forms of the status calls: {@link #tryDeposit(int, long)} with the
+     * retry behaviour of {@link #deposit(int, long, IdempotencyKey)}, so a
+     * retry gets the first call's result, a decline included, without moving
+     * money again. A key belongs to one form: reusing it for the throwing form
+     * counts as a different request.
+     *
+     * @throws IllegalArgumentException if {@code key} was already used for a different request
+     * @throws IOException if the journal fails; the deposit is applied in memory
+     */
+    public PostingResult tryDeposit(int custId, long amount, IdempotencyKey key) throws IOException {
+        return runKeyed(key, fingerprint(TransactionType.DEPOSIT, true, custId, 0, amount),
+                () -> tryDeposit(custId, amount));
+    }
+
+    /** See {@link #tryDeposit(int, long, IdempotencyKey)}. */
+    public PostingResult tryWithdraw(int custId, long amount, IdempotencyKey key) throws IOException {
+        return runKeyed(key, fingerprint(TransactionType.WITHDRAWAL, true, custId, 0, amount),
+                () -> tryWithdraw(custId, amount));
+    }
+
+    /** See {@link #tryDeposit(int, long, IdempotencyKey)}. */
+    public PostingResult tryTransfer(int fromCustId, int toCustId, long amount, IdempotencyKey key)
+            throws IOException {
+        return runKeyed(key, fingerprint(TransactionType.TRANSFER_OUT, true, fromCustId, toCustId, amount),
+                () -> tryTransfer(fromCustId, toCustId, amount));
+    }
+
+    // The status forms' actions throw only IOException, so nothing else can be replayed
+    private PostingResult runKeyed(IdempotencyKey key, long fingerprint, IdempotencyCache.Action<PostingResult> action)
+            throws IOException {
         try {
-            fromAcc.withdraw(amount);
-            withdrawn = true;
-            toAcc.deposit(amount);
-            System.out.println("✅ Transfer successful!");
+            return idempotency.run(key, fingerprint, action);
+        } catch (IOException | RuntimeException e) {
+            throw e;
         } catch (Exception e) {
-            if (withdrawn) {
-                try {
-                    fromAcc.deposit(amount);
-                    System.out.println("↩️ Transfer rolled back.");
-                } catch (Exception ex) {
-                    System.out.println("⚠️ CRITICAL: Rollback failed!");
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The status and throwing forms return different types, so a key must not cross between them
+    private static long fingerprint(TransactionType type, boolean status, int custId, int otherCustId, long amount) {
+        long form = (long) type.ordinal() << 1 | (status ? 1 : 0);
+        return IdempotencyCache.mix((form << 32 | Integer.toUnsignedLong(custId)) * 31 + otherCustId, amount);
+    }
+
+    /**
+     * Applies many deposits and withdrawals in one pass and reports each
+     * outcome in {@code result[i]} for {@code postings.get(i)} instead of throwing.
+     *
+     * Postings are grouped by account (sorting packed {@code accNo, index}
+     * keys), and each account's postings are applied in their original order
+     * under a single acquisition of its monitor. Limits are checked posting by
+     * posting against the running balance, so a payroll credit earlier in the
+     * batch can fund a later debit. All journal records are awaited once at the end.
+     * No events are published; the returned statuses are the outcome.
+     *
+     * @throws IOException if the journal fails; postings before the failure may be applied
+     */
+    public PostingStatus[] applyBatch(List<Posting> postings) throws IOException {
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            int n = postings.size();
+            PostingStatus[] results = new PostingStatus[n];
+            long[] order = new long[n];
+            int valid = 0;
+            for (int i = 0; i < n; i++) {
+                Posting p = postings.get(i);
+                if (p.amount() <= 0) {
+                    results[i] = PostingStatus.INVALID_AMOUNT;
+                } else if (p.type() != TransactionType.DEPOSIT && p.type() != TransactionType.WITHDRAWAL) {
+                    results[i] = PostingStatus.UNSUPPORTED_TYPE;
+                } else {
+                    order[valid++] = ((long) p.accNo() << 32) | i;
+                }
+            }
+            Arrays.sort(order, 0, valid);
+
+            long lsn = 0;
+            for (int start = 0, end; start < valid; start = end) {
+                int accNo = (int) (order[start] >> 32);
+                end = start + 1;
+                while (end < valid && (int) (order[end] >> 32) == accNo) end++;
+
+                Customer cust = accNoIndex.get(accNo);
+                if (cust == null) {
+                    for (int k = start; k < end; k++) results[(int) order[k]] = PostingStatus.UNKNOWN_ACCOUNT;
+                    continue;
+                }
+                Account acc = (Account) cust.getCustAcc();
+                synchronized (acc) {
+                    boolean deleted = accNoIndex.get(accNo) != cust;
+                    for (int k = start; k < end; k++) {
+                        int i = (int) order[k];
+                        Posting p = postings.get(i);
+                        PostingStatus status = deleted ? PostingStatus.UNKNOWN_ACCOUNT
+                                : p.type() == TransactionType.DEPOSIT ? acc.tryDeposit(p.amount())
+                                : acc.tryWithdraw(p.amount());
+                        if (status == PostingStatus.APPLIED) {
+                            lsn = logLastTransaction(acc);
+                        }
+                        results[i] = status;
+                    }
                 }
             }
+            awaitDurable(lsn);
+            return results;
+        } catch (Exception e) {
+            failure = e;
             throw e;
+        } finally {
+            operations.record(BankOperation.APPLY_BATCH, started, failure);
         }
     }
 
-    public void addInterestToAllAccounts() {
-        if (custlist.isEmpty()) return;
-        System.out.println("\n=== ADDING INTEREST ===");
-        custlist.forEach(c -> {
-            try {
-                ((Account) c.getCustAcc()).addInterestToBalance();
-            } catch (Exception e) {
-                System.out.println("⚠️ Interest failed for " + c.getCustName() + ": " + e.getMessage());
+    /**
+     * Moves {@code amount} between two customers' accounts as one posting.
+     * Both accounts are locked (in accNo order, so opposite transfers cannot
+     * deadlock) and every check on both sides runs before either balance
+     * changes; a declined transfer leaves both untouched, so there is nothing
+     * to reverse. The debit and credit rows share a transaction id and go to
+     * the journal as a single record.
+     */
+    public void transfer(int fromCustId, int toCustId, long amount) throws Exception {
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            if (fromCustId == toCustId) {
+                throw new IllegalArgumentException("Cannot transfer to same account");
             }
-        });
+
+            Customer fromCust = customer(fromCustId);
+            Customer toCust = customer(toCustId);
+
+            Account fromAcc = (Account) fromCust.getCustAcc();
+            Account toAcc = (Account) toCust.getCustAcc();
+
+            Account first = fromAcc.getAccNo() < toAcc.getAccNo() ? fromAcc : toAcc;
+            Account second = first == fromAcc ? toAcc : fromAcc;
+
+            long lsn = 0;
+            long balance;
+            synchronized (first) {
+                synchronized (second) {
+                    // Either side may have been deleted between the lookup and the locks
+                    if (accNoIndex.get(fromAcc.getAccNo()) != fromCust) throw new AccountNotFoundException(fromCustId);
+                    if (accNoIndex.get(toAcc.getAccNo()) != toCust) throw new AccountNotFoundException(toCustId);
+
+                    fromAcc.transferTo(toAcc, amount);
+                    lsn = logLastTransfer(fromAcc, toAcc);
+                    balance = fromAcc.getBalance();
+                }
+            }
+            awaitDurable(lsn);
+            publish(AccountEventType.TRANSFERRED, fromCustId, fromAcc.getAccNo(), amount, balance,
+                    toAcc.getAccNo(), null);
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.TRANSFER, started, failure);
+        }
+    }
+
+    /**
+     * {@link #transfer(int, int, long)} reporting a decline (including an
+     * unknown custId on either side) as a status instead of an exception. An
+     * applied result carries the paying account's balance right after it.
+     *
+     * @throws IllegalArgumentException if both custIds are the same
+     * @throws IOException if the journal fails; the transfer is applied in memory
+     */
+    public PostingResult tryTransfer(int fromCustId, int toCustId, long amount) throws IOException {
+        long started = operations.start();
+        try {
+            PostingResult result = postTransfer(fromCustId, toCustId, amount);
+            operations.record(BankOperation.TRANSFER, started, result.status());
+            return result;
+        } catch (IOException | RuntimeException e) {
+            operations.record(BankOperation.TRANSFER, started, e);
+            throw e;
+        }
+    }
+
+    private PostingResult postTransfer(int fromCustId, int toCustId, long amount) throws IOException {
+        if (fromCustId == toCustId) {
+            throw new IllegalArgumentException("Cannot transfer to same account");
+        }
+        Customer fromCust = custIdIndex.get(fromCustId);
+        Customer toCust = custIdIndex.get(toCustId);
+        if (fromCust == null || toCust == null) return PostingResult.declined(PostingStatus.UNKNOWN_ACCOUNT);
+
+        Account fromAcc = (Account) fromCust.getCustAcc();
+        Account toAcc = (Account) toCust.getCustAcc();
+        Account first = fromAcc.getAccNo() < toAcc.getAccNo() ? fromAcc : toAcc;
+        Account second = first == fromAcc ? toAcc : fromAcc;
+
+        long lsn;
+        long balance;
+        synchronized (first) {
+            synchronized (second) {
+                if (!isIndexed(fromCust) || !isIndexed(toCust)) {
+                    return PostingResult.declined(PostingStatus.UNKNOWN_ACCOUNT);
+                }
+                PostingStatus status = fromAcc.tryTransferTo(toAcc, amount);
+                if (status != PostingStatus.APPLIED) return PostingResult.declined(status);
+                lsn = logLastTransfer(fromAcc, toAcc);
+                balance = fromAcc.getBalance();
+            }
+        }
+        awaitDurable(lsn);
+        publish(AccountEventType.TRANSFERRED, fromCustId, fromAcc.getAccNo(), amount, balance, toAcc.getAccNo(), null);
+        return PostingResult.applied(balance);
+    }
+
+    /** Credits this month's interest; see {@link #addInterestToAllAccounts(YearMonth)}. */
+    public InterestReport addInterestToAllAccounts() throws IOException {
+        return addInterestToAllAccounts(YearMonth.now());
+    }
+
+    /**
+     * Credits interest for {@code period} to every account, in parallel on the
+     * common ForkJoin pool and alongside live postings. Each account is credited
+     * at most once per period, so an interrupted run can be repeated safely; an
+     * account deleted while the run is in progress is skipped.
+     */
+    public InterestReport addInterestToAllAccounts(YearMonth period) throws IOException {
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            return new InterestEngine(this, journal, ForkJoinPool.commonPool()).run(period, custIdIndex.slots());
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.ADD_INTEREST, started, failure);
+        }
     }
 
     public void printStatement(int custId, int count) throws AccountNotFoundException {
-        Customer cust = findById(custId);
-        ((Account) cust.getCustAcc()).printStatement(Math.min(count, BankConstants.MAX_STATEMENT));
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            Customer cust = customer(custId);
+            ((Account) cust.getCustAcc()).printStatement(Math.min(count, BankConstants.MAX_STATEMENT));
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.PRINT_STATEMENT, started, failure);
+        }
     }
 
+    /** Statement for a date range (inclusive), reading archived history as needed. */
+    public List<Transaction> getTransactions(int custId, LocalDate from, LocalDate to)
+            throws AccountNotFoundException, IOException {
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            return ((Account) customer(custId).getCustAcc()).getTransactions(from, to);
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.GET_TRANSACTIONS, started, failure);
+        }
+    }
+
+    /**
+     * Copies every customer into a new list. Prefer {@link #customers()} unless
+     * a stable copy is really needed.
+     */
     public List<Customer> getAllCustomers() {
-        return new ArrayList<>(custlist);
+        List<Customer> all = new ArrayList<>(custIdIndex.size());
+        custIdIndex.forEach(all::add);
+        return all;
+    }
+
+    /**
+     * Live, read-only view over all customers; iterating it copies nothing and
+     * is weakly consistent with concurrent adds and deletes.
+     */
+    public Iterable<Customer> customers() {
+        return custIdIndex::iterator;
+    }
+
+    public int getCustomerCount() {
+        return custIdIndex.size();
+    }
+
+    /**
+     * Writes a snapshot of every customer without pausing postings; only one
+     * account is locked at a time. Startup then replays just the journal tail.
+     */
+    public void takeSnapshot() throws IOException {
+        long started = operations.start();
+        Exception failure = null;
+        try {
+            if (journal == null || snapshotFile == null) {
+                throw new IllegalStateException("Snapshots need a journal and a snapshot file");
+            }
+            synchronized (snapshotLock) {
+                long lsn = journal.currentLsn();
+                // Everything before lsn is already applied; it must also be on disk,
+                // or a crash could leave the journal shorter than the snapshot assumes
+                journal.awaitDurable(lsn);
+                SnapshotStore.write(snapshotFile, lsn, custIdIndex, history);
+            }
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            operations.record(BankOperation.TAKE_SNAPSHOT, started, failure);
+        }
     }
 
-    private boolean hasDuplicate(Customer customer) {
-        return custIdCache.containsKey(customer.getCustId()) ||
-               accNoCache.containsKey(customer.getCustAcc().getAccNo());
+    /** Takes a snapshot every {@code intervalSeconds} on a background thread. */
+    public synchronized void startSnapshots(long intervalSeconds) {
+        if (snapshotScheduler != null) return;
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "snapshot-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                takeSnapshot();
+            } catch (IOException e) {
+                publish(AccountEventType.SNAPSHOT_FAILED, 0, 0, 0, 0, 0, e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.shutdownNow();
+            }
+        }
+        if (journal != null) {
+            if (snapshotFile != null) {
+                takeSnapshot();
+            }
+            journal.close();
+        }
+        history.close();
+    }
+
+    /** Delivers every later {@link AccountEvent} to {@code listener}. */
+    public synchronized void addListener(AccountEventListener listener) {
+        AccountEventListener[] next = Arrays.copyOf(listeners, listeners.length + 1);
+        next[listeners.length] = listener;
+        listeners = next;
+    }
+
+    public synchronized void removeListener(AccountEventListener listener) {
+        List<AccountEventListener> next = new ArrayList<>(Arrays.asList(listeners));
+        next.remove(listener);
+        listeners = next.toArray(new AccountEventListener[0]);
+    }
+
+    // findById for operations that are timed themselves
+    private Customer customer(int custId) throws AccountNotFoundException {
+        Customer customer = custIdIndex.get(custId);
+        if (customer == null) {
+            throw new AccountNotFoundException(custId);
+        }
+        return customer;
+    }
+
+    // Called with no account monitor held; builds the event only if someone listens
+    void publish(AccountEventType type, int custId, int accNo, long amount, long balance, int counterAccNo,
+            String text) {
+        AccountEventListener[] current = listeners;
+        if (current.length == 0) return;
+        AccountEvent event = new AccountEvent(type, custId, accNo, amount, balance, counterAccNo, text);
+        for (AccountEventListener listener : current) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException ignored) {
+                // The change is already applied; a broken listener must not make it look failed
+            }
+        }
+    }
+
+    // Journal helper: callers hold the account monitor while logging.
+    // Skips materializing the last row when there is no journal to write it to
+    long logLastTransaction(Account acc) throws IOException {
+        return journal == null ? 0 : journal.logTransaction(acc.getAccNo(), acc.getLastTransaction());
+    }
+
+    // As logLastTransaction for both rows of a transfer; callers hold both monitors
+    long logLastTransfer(Account from, Account to) throws IOException {
+        return journal == null ? 0 : journal.logTransfer(from.getAccNo(), from.getLastTransaction(),
+                to.getAccNo(), to.getLastTransaction());
+    }
+
+    // PostingPipeline hooks: index reads without the not-found exception
+    Customer customerById(int custId) {
+        return custIdIndex.get(custId);
+    }
+
+    // False once the customer has been deleted (or replaced); callers hold its account monitor
+    boolean isIndexed(Customer customer) {
+        return accNoIndex.get(customer.getCustAcc().getAccNo()) == customer;
     }
 
-    private void updateCaches(Customer customer) {
-        custIdCache.put(customer.getCustId(), customer);
-        accNoCache.put(customer.getCustAcc().getAccNo(), customer);
+    // Archive, limit and dashboard hooks for a newly indexed account; callers hold its monitor
+    private void track(Account acc) {
+        acc.attachArchive(history);
+        acc.attachLimitPolicy(limitPolicy);
+        acc.attachBalanceObserver(metrics);
+        metrics.added(acc);
+    }
+
+    private void untrack(Account acc) {
+        acc.attachBalanceObserver(null);
+        metrics.removed(acc);
+    }
+
+    void awaitDurable(long lsn) throws IOException {
+        if (journal != null && lsn > 0) {
+            journal.awaitDurable(lsn);
+        }
+    }
+
+    /**
+     * Applies journal records straight to the indexes and accounts, bypassing
+     * validation and logging: they describe changes that were already accepted.
+     * Records already reflected in a (fuzzy) snapshot are skipped: creations of
+     * customers that exist, and transactions at or below an account's last id.
+     */
+    private final class JournalReplay implements Journal.Replay {
+        @Override
+        public void customerCreated(Customer customer) {
+            if (custIdIndex.putIfAbsent(customer.getCustId(), customer) == null) {
+                accNoIndex.putIfAbsent(customer.getCustAcc().getAccNo(), customer);
+                track((Account) customer.getCustAcc());
+                nameIndex.add(customer.getCustId(), customer.getCustName());
+            }
+        }
+
+        @Override
+        public void customerDeleted(int custId) {
+            Customer cust = custIdIndex.remove(custId);
+            if (cust != null) {
+                accNoIndex.remove(cust.getCustAcc().getAccNo(), cust);
+                nameIndex.remove(custId);
+                untrack((Account) cust.getCustAcc());
+            }
+        }
+
+        @Override
+        public void nameUpdated(int custId, String name) {
+            Customer cust = custIdIndex.get(custId);
+            if (cust != null) {
+                cust.setCustName(name);
+                nameIndex.rename(custId, cust.getCustName());
+            }
+        }
+
+        @Override
+        public void addressUpdated(int custId, Address address) {
+            Customer cust = custIdIndex.get(custId);
+            if (cust != null) cust.setCustAddr(address);
+        }
+
+        @Override
+        public void transaction(int accNo, long transactionId, LocalDateTime timestamp, TransactionType type,
+                long amount, long balanceAfter, String description) {
+            Customer cust = accNoIndex.get(accNo);
+            if (cust == null) return;
+            Account acc = (Account) cust.getCustAcc();
+            Transaction last = acc.getLastTransaction();
+            if (last == null || last.getTransactionId() < transactionId) {
+                acc.restoreTransaction(transactionId, timestamp, type, amount, balanceAfter, description);
+            }
+        }
+
+        @Override
+        public void interestCredited(int accNo, YearMonth period) {
+            Customer cust = accNoIndex.get(accNo);
+            if (cust != null) ((Account) cust.getCustAcc()).restoreInterestPeriod(period);
+        }
+    }
+
+    /** Latency and outcome counts of every public operation; see {@link OperationMetrics}. */
+    public OperationMetrics getOperationMetrics() {
+        return operations;
+    }
+
+    /**
+     * Current totals plus the {@code top} richest customers. Reads maintained
+     * aggregates, so it costs O(top) whatever the number of customers and
+     * never blocks postings.
+     */
+    public Dashboard getDashboard(int top) {
+        return metrics.read(top, accNoIndex::get);
     }
 
     public void showDashboard() {
-        if (custlist.isEmpty()) {
+        Dashboard d = getDashboard(DASHBOARD_TOP);
+        if (d.customers() == 0) {
             System.out.println("🏦 BANK DASHBOARD - No accounts yet!");
             return;
         }
-        
-        double totalBalance = custlist.stream()
-            .mapToDouble(c -> c.getCustAcc().getBalance())
-            .sum();
-            
-        double avgBalance = totalBalance / custlist.size();
-        long highBalanceAccounts = custlist.stream()
-            .filter(c -> c.getCustAcc().getBalance() > BankConstants.HIGH_BALANCE_THRESHOLD)
-            .count();
-        
+
         System.out.println("\n🏦 ═══════════════════════════════════════════════");
         System.out.println("                    BANK DASHBOARD");
         System.out.println("   ═══════════════════════════════════════════════");
-        System.out.printf("   📊 Customers      : %d%n", custlist.size());
-        System.out.printf("   💰 Total Balance  : ₹%,.2f%n", totalBalance);
-        System.out.printf("   📈 Avg Balance    : ₹%,.2f%n", avgBalance);
-        System.out.printf("   ⚠️  High Balance  : %d (>%s)%n", 
-            highBalanceAccounts, "₹5,000");
+        System.out.printf("   📊 Customers      : %d%n", d.customers());
+        System.out.printf("   💰 Total Balance  : ₹%s%n", d.totalBalance().formatGrouped());
+        System.out.printf("   📈 Avg Balance    : ₹%s%n", d.averageBalance().formatGrouped());
+        System.out.printf("   ⚠️  High Balance  : %d (>₹%s)%n", 
+            d.highBalanceAccounts(), Money.formatGrouped(BankConstants.HIGH_BALANCE_THRESHOLD));
         
-        // Top customer
-        Customer top = custlist.stream()
-            .max(Comparator.comparingDouble(c -> c.getCustAcc().getBalance()))
-            .orElse(null);
-        if (top != null) {
-            System.out.printf("   👑 Top Customer   : %s (₹%,.2f)%n", 
-                top.getCustName(), top.getCustAcc().getBalance());
+        // Top customers
+        String label = "   👑 Top Customers  : ";
+        for (Dashboard.TopCustomer top : d.topCustomers()) {
+            System.out.printf("%s%s (₹%s)%n", label, top.name(), top.balance().formatGrouped());
+            label = "                       ";
         }
         
         System.out.println("   ═══════════════════════════════════════════════");
-        System.out.println("Press Enter to continue...");
-        try { System.in.read(); } catch (Exception e) {}
     }
 }
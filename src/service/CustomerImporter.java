@@ -0,0 +1,174 @@
+package service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+import model.entity.Address;
+import model.entity.BankAccount;
+import model.entity.CurrentAccount;
+import model.entity.Customer;
+import model.entity.SavingsAccount;
+import model.enums.AccountType;
+import util.Money;
+
+/**
+ * Streaming CSV import of customers with their accounts.
+ *
+ * Columns: {@code custId,name,accNo,ifsc,balance,type,rateOrCompany,city,state,pin},
+ * balance in rupees, type SAVINGS or CURRENT. A header line starting with
+ * "custId" and blank lines are skipped; fields may be double-quoted. Lines are
+ * read in fixed-size chunks, each chunk is parsed and validated in parallel (through
+ * the same constructors as interactive account creation), then registered in
+ * file order with one journal wait per chunk. Memory use is bounded by the
+ * chunk size, not the file size. Rejected lines go to a side file as
+ * {@code lineNumber,"reason",original line}.
+ */
+public final class CustomerImporter {
+
+    public record Report(long lines, long imported, long rejected, Path rejectsFile) {
+    }
+
+    private static final int CHUNK = 8_192;
+    private static final int FIELDS = 10;
+
+    private final BankServices bank;
+
+    public CustomerImporter(BankServices bank) {
+        this.bank = bank;
+    }
+
+    public Report importCsv(Path csv, Path rejectsFile) throws IOException {
+        long lines = 0;
+        long imported = 0;
+        long rejected = 0;
+        String[] chunk = new String[CHUNK];
+        long[] lineNumbers = new long[CHUNK];
+        Customer[] parsed = new Customer[CHUNK];
+        String[] reasons = new String[CHUNK];
+        List<Customer> batch = new ArrayList<>(CHUNK);
+
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+                BufferedWriter rejects = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8)) {
+            while (true) {
+                int n = 0;
+                String line;
+                while (n < CHUNK && (line = in.readLine()) != null) {
+                    lines++;
+                    boolean header = lines == 1 && line.regionMatches(true, 0, "custId", 0, 6);
+                    if (header || line.isBlank()) continue;
+                    lineNumbers[n] = lines;
+                    chunk[n++] = line;
+                }
+                if (n == 0) break;
+
+                int count = n;
+                IntStream.range(0, count).parallel().forEach(i -> {
+                    parsed[i] = null;
+                    reasons[i] = null;
+                    try {
+                        parsed[i] = parse(chunk[i]);
+                    } catch (Exception e) {
+                        reasons[i] = e.getMessage() != null ? e.getMessage() : e.toString();
+                    }
+                });
+
+                batch.clear();
+                for (int i = 0; i < count; i++) {
+                    if (parsed[i] != null) batch.add(parsed[i]);
+                }
+                boolean[] added = bank.addCustomers(batch);
+                for (int i = 0, b = 0; i < count; i++) {
+                    String reason = reasons[i];
+                    if (reason == null && !added[b++]) {
+                        reason = "Duplicate customer ID or account number";
+                    }
+                    if (reason == null) {
+                        imported++;
+                    } else {
+                        rejected++;
+                        writeReject(rejects, lineNumbers[i], reason, chunk[i]);
+                    }
+                    chunk[i] = null;
+                    parsed[i] = null;
+                }
+            }
+        }
+        return new Report(lines, imported, rejected, rejectsFile);
+    }
+
+    /**
+     * Builds a customer from one data line in the import format, validating
+     * it like interactive account creation.
+     */
+    public static Customer parse(String line) throws Exception {
+        String[] f = split(line);
+        if (f.length != FIELDS) {
+            throw new IllegalArgumentException("Expected " + FIELDS + " fields, found " + f.length);
+        }
+        int custId = Integer.parseInt(f[0].trim());
+        int accNo = Integer.parseInt(f[2].trim());
+        long balance = Money.parse(f[4]);
+        AccountType type = AccountType.valueOf(f[5].trim().toUpperCase(Locale.ROOT));
+        BankAccount acc = type == AccountType.SAVINGS
+                ? new SavingsAccount(accNo, f[3].trim(), balance, type, Double.parseDouble(f[6].trim()))
+                : new CurrentAccount(accNo, f[3].trim(), balance, type, f[6]);
+        Address address = new Address(f[7], f[8], Integer.parseInt(f[9].trim()));
+        return new Customer(custId, f[1], acc, address);
+    }
+
+    /**
+     * Splits one CSV line; a quoted field may contain commas and doubled quotes.
+     *
+     * @throws IllegalArgumentException if a quote is never closed
+     */
+    private static String[] split(String line) {
+        List<String> fields = new ArrayList<>(FIELDS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int quoteStart = -1;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                quoteStart = i;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote starting at column " + (quoteStart + 1));
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static void writeReject(BufferedWriter out, long lineNumber, String reason, String line)
+            throws IOException {
+        out.write(Long.toString(lineNumber));
+        out.write(",\"");
+        out.write(reason.replace("\"", "\"\""));
+        out.write("\",");
+        out.write(line);
+        out.newLine();
+    }
+}
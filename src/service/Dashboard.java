@@ -0,0 +1,22 @@
+package service;
+
+import java.util.List;
+
+import util.Money;
+
+/**
+ * Bank-wide aggregates as of one read. The figures are maintained as balances
+ * change rather than computed by a scan, so they are each exact but not taken
+ * at a single instant while postings are running.
+ */
+public record Dashboard(int customers, Money totalBalance, int highBalanceAccounts, List<TopCustomer> topCustomers) {
+
+    public record TopCustomer(int custId, String name, int accNo, Money balance) {
+    }
+
+    /** Average balance, rounded half-even to the paisa; zero with no customers. */
+    public Money averageBalance() {
+        return customers == 0 ? Money.ZERO
+                : Money.ofPaise(Money.mulDivHalfEven(totalBalance.getPaise(), 1, customers));
+    }
+}
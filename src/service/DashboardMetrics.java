@@ -0,0 +1,230 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import model.entity.Account;
+import model.entity.BalanceObserver;
+import model.entity.Customer;
+import util.BankConstants;
+import util.Money;
+
+/**
+ * Live dashboard aggregates, updated on every balance change instead of
+ * recomputed by scanning all customers.
+ *
+ * Totals are striped {@link LongAdder}s. The ranking is an indexed binary
+ * max-heap of {@code (balance, accNo)} per stripe of account numbers, each
+ * with its own lock: a balance change re-sifts one entry, which for a typical
+ * posting moves it a level or two at most, and postings on different stripes
+ * never contend. The top N are read best-first from each stripe's heap and
+ * merged, so a read costs O(N log N) however many accounts there are.
+ *
+ * Changes to one account arrive under that account's monitor, so they reach
+ * its stripe in order. Stripe locks are never held while taking an account
+ * monitor.
+ */
+final class DashboardMetrics implements BalanceObserver {
+
+    private static final int STRIPES = 16;      // power of two
+
+    private final LongAdder customers = new LongAdder();
+    private final LongAdder totalBalance = new LongAdder();
+    private final LongAdder highBalanceAccounts = new LongAdder();
+    private final Ranking[] ranking = new Ranking[STRIPES];
+
+    DashboardMetrics() {
+        for (int i = 0; i < STRIPES; i++) ranking[i] = new Ranking();
+    }
+
+    // Callers hold the account monitor for added, removed and balanceChanged
+    void added(Account acc) {
+        long balance = acc.getBalance();
+        customers.increment();
+        totalBalance.add(balance);
+        if (isHigh(balance)) highBalanceAccounts.increment();
+        stripe(acc.getAccNo()).add(acc.getAccNo(), balance);
+    }
+
+    void removed(Account acc) {
+        long balance = acc.getBalance();
+        customers.decrement();
+        totalBalance.add(-balance);
+        if (isHigh(balance)) highBalanceAccounts.decrement();
+        stripe(acc.getAccNo()).remove(acc.getAccNo());
+    }
+
+    @Override
+    public void balanceChanged(Account acc, long oldBalance, long newBalance) {
+        if (oldBalance == newBalance) return;
+        totalBalance.add(newBalance - oldBalance);
+        boolean wasHigh = isHigh(oldBalance);
+        if (wasHigh != isHigh(newBalance)) {
+            if (wasHigh) highBalanceAccounts.decrement(); else highBalanceAccounts.increment();
+        }
+        stripe(acc.getAccNo()).update(acc.getAccNo(), newBalance);
+    }
+
+    /**
+     * Reads the totals and the {@code top} richest customers, looked up by
+     * accNo through {@code customerByAccNo}.
+     */
+    Dashboard read(int top, IntFunction<Customer> customerByAccNo) {
+        List<long[]> candidates = new ArrayList<>(top * STRIPES);
+        for (Ranking r : ranking) r.top(top, candidates);
+        candidates.sort((a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(a[1], b[1]));
+
+        List<Dashboard.TopCustomer> richest = new ArrayList<>(top);
+        for (long[] c : candidates) {
+            if (richest.size() == top) break;
+            Customer cust = customerByAccNo.apply((int) c[1]);
+            if (cust == null) continue;         // deleted since its stripe was read
+            richest.add(new Dashboard.TopCustomer(cust.getCustId(), cust.getCustName(), (int) c[1],
+                    Money.ofPaise(c[0])));
+        }
+        return new Dashboard(customers.intValue(), Money.ofPaise(totalBalance.sum()), highBalanceAccounts.intValue(),
+                List.copyOf(richest));
+    }
+
+    private Ranking stripe(int accNo) {
+        return ranking[(accNo ^ (accNo >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static boolean isHigh(long balance) {
+        return balance > BankConstants.HIGH_BALANCE_THRESHOLD;
+    }
+
+    /**
+     * Max-heap of accounts by balance (ties: lower accNo first) in parallel
+     * arrays, plus an open-addressing accNo -> heap index table so an entry can
+     * be found and re-sifted without searching. Sifting moves a hole rather
+     * than swapping, so each level costs one table write. All methods lock the stripe.
+     */
+    private static final class Ranking {
+        private long[] balances = new long[64];
+        private int[] accNos = new int[64];
+        private int size;
+
+        // Linear probing over (accNo << 32 | heap index + 1); 0 is an empty slot
+        private long[] table = new long[128];
+
+        synchronized void add(int accNo, long balance) {
+            if (size == balances.length) {
+                balances = Arrays.copyOf(balances, size * 2);
+                accNos = Arrays.copyOf(accNos, size * 2);
+            }
+            if (2 * ++size > table.length) rehash(table.length * 2);
+            place(size - 1, balance, accNo);
+        }
+
+        synchronized void remove(int accNo) {
+            int i = indexOf(accNo);
+            if (i < 0) return;
+            delete(accNo);
+            int last = --size;
+            if (i != last) place(i, balances[last], accNos[last]);
+        }
+
+        synchronized void update(int accNo, long balance) {
+            int i = indexOf(accNo);
+            if (i >= 0) place(i, balance, accNo);
+        }
+
+        /** Appends this stripe's {@code n} richest as {@code {balance, accNo}}, best-first from the root. */
+        synchronized void top(int n, List<long[]> out) {
+            // The next best entry is always a child of one already taken
+            int[] frontier = new int[n + 1];
+            int open = size == 0 ? 0 : 1;
+            for (int taken = 0; taken < n && open > 0; taken++) {
+                int best = 0;
+                for (int k = 1; k < open; k++) {
+                    int a = frontier[k], b = frontier[best];
+                    if (above(balances[a], accNos[a], balances[b], accNos[b])) best = k;
+                }
+                int i = frontier[best];
+                frontier[best] = frontier[--open];
+                out.add(new long[] { balances[i], accNos[i] });
+                if (2 * i + 1 < size) frontier[open++] = 2 * i + 1;
+                if (2 * i + 2 < size) frontier[open++] = 2 * i + 2;
+            }
+        }
+
+        /** Fills hole {@code i} with the entry, moving it up or down to where it belongs. */
+        private void place(int i, long balance, int accNo) {
+            int hole = i;
+            while (hole > 0) {
+                int parent = (hole - 1) >>> 1;
+                if (!above(balance, accNo, balances[parent], accNos[parent])) break;
+                set(hole, balances[parent], accNos[parent]);
+                hole = parent;
+            }
+            boolean movedUp = hole != i;
+            while (!movedUp) {
+                int child = 2 * hole + 1;
+                if (child >= size) break;
+                if (child + 1 < size && above(balances[child + 1], accNos[child + 1], balances[child], accNos[child])) {
+                    child++;
+                }
+                if (!above(balances[child], accNos[child], balance, accNo)) break;
+                set(hole, balances[child], accNos[child]);
+                hole = child;
+            }
+            set(hole, balance, accNo);
+        }
+
+        private static boolean above(long balance, int accNo, long otherBalance, int otherAccNo) {
+            return balance > otherBalance || (balance == otherBalance && accNo < otherAccNo);
+        }
+
+        private void set(int i, long balance, int accNo) {
+            balances[i] = balance;
+            accNos[i] = accNo;
+            table[find(accNo)] = ((long) accNo << 32) | (i + 1);
+        }
+
+        // accNo -> heap index table
+        private int home(int accNo) {
+            int h = accNo * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & (table.length - 1);
+        }
+
+        /** The slot holding {@code accNo}, or the empty slot where it would go. */
+        private int find(int accNo) {
+            int p = home(accNo);
+            while (table[p] != 0 && (int) (table[p] >>> 32) != accNo) p = (p + 1) & (table.length - 1);
+            return p;
+        }
+
+        private int indexOf(int accNo) {
+            long entry = table[find(accNo)];
+            return entry == 0 ? -1 : (int) entry - 1;
+        }
+
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        private void delete(int accNo) {
+            int mask = table.length - 1;
+            int p = find(accNo);
+            table[p] = 0;
+            for (int q = (p + 1) & mask; table[q] != 0; q = (q + 1) & mask) {
+                int h = home((int) (table[q] >>> 32));
+                // Move q back into the hole unless its home lies cyclically in (p, q]
+                if (((q - h) & mask) >= ((q - p) & mask)) {
+                    table[p] = table[q];
+                    table[q] = 0;
+                    p = q;
+                }
+            }
+        }
+
+        private void rehash(int capacity) {
+            long[] old = table;
+            table = new long[capacity];
+            for (long entry : old) {
+                if (entry != 0) table[find((int) (entry >>> 32))] = entry;
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+
+import model.entity.IdempotencyKey;
+
+/**
+ * Remembers the outcome of each keyed request for a fixed time so that a
+ * retry returns the original outcome instead of running again.
+ *
+ * Keys are spread over independently locked stripes; a lock is held only to
+ * look up or insert, never while the request runs. Each stripe keeps its
+ * entries in a ring in insertion order, which with a single TTL is also
+ * expiry order: inserting first retires expired entries from the head (a
+ * one-slot-per-entry timing wheel), and a full ring retires its oldest entry
+ * early, which bounds memory. Rings start small and double up to their share
+ * of the capacity. An open-addressing table over the 128-bit keys points into
+ * the ring, so lookup, insert and retire are all O(1) (amortized over growth).
+ *
+ * A duplicate that arrives while the first request is still running waits
+ * for it and then shares its outcome: the same result, or the same exception.
+ * An {@link Error} is an outcome too, so a waiting duplicate is always woken.
+ */
+final class IdempotencyCache {
+
+    /** The keyed work; its result, or the exception it throws, is the outcome. */
+    interface Action<T> {
+        T run() throws Exception;
+    }
+
+    private static final int STRIPES = 64;          // power of two
+    private static final Object NO_RESULT = new Object();       // outcome of an action that returned null
+
+    // Outcome of an action that threw (an Exception or an Error), so a result can never be mistaken for a failure
+    private record Failed(Throwable failure) {
+    }
+
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    IdempotencyCache(int capacity, long ttlNanos) {
+        this(capacity, ttlNanos, System::nanoTime);
+    }
+
+    IdempotencyCache(int capacity, long ttlNanos, LongSupplier clock) {
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+        int perStripe = Math.max(1, (capacity + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe(perStripe);
+    }
+
+    /**
+     * Runs {@code action} unless {@code key} was seen within the TTL, in which
+     * case the earlier result is returned or the earlier exception rethrown.
+     * {@code fingerprint} identifies the request's content; callers must use
+     * one result type per fingerprint.
+     *
+     * @throws IllegalArgumentException if the key was used for a request with a different fingerprint
+     */
+    <T> T run(IdempotencyKey key, long fingerprint, Action<T> action) throws Exception {
+        long hi = key.high();
+        long lo = key.low();
+        Stripe stripe = stripes[(int) mix(hi, lo) & (STRIPES - 1)];
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        Object previous = stripe.putIfAbsent(hi, lo, fingerprint, mine, clock.getAsLong());
+        if (previous != null) {
+            return replay(previous);
+        }
+
+        Object outcome;
+        try {
+            T result = action.run();
+            outcome = result == null ? NO_RESULT : result;
+        } catch (Throwable t) {
+            // Errors included: otherwise the entry stays running and its duplicates wait until it expires
+            outcome = new Failed(t);
+        }
+        mine.complete(outcome);
+        stripe.settle(hi, lo, mine, outcome);
+        return replay(outcome);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T replay(Object outcome) throws Exception {
+        if (outcome instanceof CompletableFuture<?> running) {
+            try {
+                outcome = running.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);     // never completed exceptionally
+            }
+        }
+        if (outcome instanceof Failed failed) {
+            if (failed.failure() instanceof Error error) throw error;
+            if (failed.failure() instanceof Exception exception) throw exception;
+            throw new IllegalStateException(failed.failure());
+        }
+        return outcome == NO_RESULT ? null : (T) outcome;
+    }
+
+    static long mix(long hi, long lo) {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return h ^ (h >>> 32);
+    }
+
+    private final class Stripe {
+        private final int capacity;
+
+        // Ring of entries, oldest at head
+        private long[] his;
+        private long[] los;
+        private long[] fingerprints;
+        private long[] expiries;
+        private Object[] outcomes;          // running future, then the result, NO_RESULT or Failed
+        private int head;
+        private int size;
+
+        // Open addressing: ring index + 1, 0 for an empty slot; at most half full
+        private int[] table;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            allocate(Math.min(capacity, 16));
+        }
+
+        /** Returns the recorded outcome for the key, or inserts {@code running} and returns null. */
+        synchronized Object putIfAbsent(long hi, long lo, long fingerprint, Object running, long now) {
+            while (size > 0 && expiries[head] - now <= 0) retireHead();
+
+            int slot = find(hi, lo);
+            if (table[slot] != 0) {
+                int i = table[slot] - 1;
+                if (fingerprints[i] != fingerprint) {
+                    throw new IllegalArgumentException("Idempotency key already used for a different request");
+                }
+                return outcomes[i];
+            }
+            if (size == his.length) {
+                if (size < capacity) grow(); else retireHead();
+                slot = find(hi, lo);
+            }
+            int i = (head + size++) % his.length;
+            his[i] = hi;
+            los[i] = lo;
+            fingerprints[i] = fingerprint;
+            expiries[i] = now + ttlNanos;
+            outcomes[i] = running;
+            table[slot] = i + 1;
+            return null;
+        }
+
+        /** Replaces the running future with the final outcome, unless the entry was retired meanwhile. */
+        synchronized void settle(long hi, long lo, Object running, Object outcome) {
+            int slot = find(hi, lo);
+            if (table[slot] != 0 && outcomes[table[slot] - 1] == running) {
+                outcomes[table[slot] - 1] = outcome;
+            }
+        }
+
+        private void allocate(int length) {
+            his = new long[length];
+            los = new long[length];
+            fingerprints = new long[length];
+            expiries = new long[length];
+            outcomes = new Object[length];
+            table = new int[Integer.highestOneBit(length * 2 - 1) << 1];
+        }
+
+        // Unrolls the ring into arrays twice as long, oldest first, and re-indexes it
+        private void grow() {
+            long[] oldHis = his, oldLos = los, oldFingerprints = fingerprints, oldExpiries = expiries;
+            Object[] oldOutcomes = outcomes;
+            allocate(Math.min(capacity, oldHis.length * 2));
+            for (int k = 0; k < size; k++) {
+                int from = (head + k) % oldHis.length;
+                his[k] = oldHis[from];
+                los[k] = oldLos[from];
+                fingerprints[k] = oldFingerprints[from];
+                expiries[k] = oldExpiries[from];
+                outcomes[k] = oldOutcomes[from];
+                table[find(his[k], los[k])] = k + 1;
+            }
+            head = 0;
+        }
+
+        private void retireHead() {
+            delete(find(his[head], los[head]));
+            outcomes[head] = null;
+            head = (head + 1) % his.length;
+            size--;
+        }
+
+        /** The slot holding the key, or the empty slot where it would go. */
+        private int find(long hi, long lo) {
+            int mask = table.length - 1;
+            int p = (int) (mix(hi, lo) >>> 32) & mask;
+            while (table[p] != 0) {
+                int i = table[p] - 1;
+                if (his[i] == hi && los[i] == lo) return p;
+                p = (p + 1) & mask;
+            }
+            return p;
+        }
+
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        private void delete(int p) {
+            int mask = table.length - 1;
+            table[p] = 0;
+            for (int q = (p + 1) & mask; table[q] != 0; q = (q + 1) & mask) {
+                int i = table[q] - 1;
+                int home = (int) (mix(his[i], los[i]) >>> 32) & mask;
+                if (((q - home) & mask) >= ((q - p) & mask)) {
+                    table[p] = table[q];
+                    table[q] = 0;
+                    p = q;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import model.entity.Account;
+import model.entity.Customer;
+import model.entity.Transaction;
+import persistence.Journal;
+import util.IntIndex;
+import util.Money;
+
+/**
+ * Month-end interest run over a {@link ForkJoinPool}.
+ *
+ * The custId index's slots as of the start of the run are split into ranges,
+ * walked in place rather than copied; each account is credited under its own
+ * monitor, so live postings continue, and only while it is still registered
+ * (a customer deleted during the run is skipped, not credited).
+ * {@link Account#creditInterest} credits a period at most once. A run that was
+ * interrupted (or crashed) can therefore simply be started again for the same
+ * period. Each range waits for its journal records once, so group commit
+ * batches a whole range.
+ */
+final class InterestEngine {
+
+    private static final int LEAF_SIZE = 4096;
+    private static final int MAX_FAILURES_KEPT = 100;
+
+    private final BankServices bank;
+    private final Journal journal;      // null when running purely in memory
+    private final ForkJoinPool pool;
+
+    InterestEngine(BankServices bank, Journal journal, ForkJoinPool pool) {
+        this.bank = bank;
+        this.journal = journal;
+        this.pool = pool;
+    }
+
+    InterestReport run(YearMonth period, IntIndex.Slots<Customer> customers) throws IOException {
+        Tally tally;
+        try {
+            tally = pool.invoke(new Range(period, customers, 0, customers.length()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new InterestReport(period, tally.accounts, tally.credited, Money.ofPaise(tally.total), tally.failed,
+                List.copyOf(tally.failures));
+    }
+
+    private static final class Tally {
+        int accounts;
+        int credited;
+        long total;
+        int failed;
+        final List<InterestReport.Failure> failures = new ArrayList<>();
+
+        Tally merge(Tally other) {
+            accounts += other.accounts;
+            credited += other.credited;
+            total += other.total;
+            failed += other.failed;
+            for (InterestReport.Failure f : other.failures) {
+                if (failures.size() == MAX_FAILURES_KEPT) break;
+                failures.add(f);
+            }
+            return this;
+        }
+    }
+
+    private final class Range extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final YearMonth period;
+        private final IntIndex.Slots<Customer> customers;
+        private final int from;
+        private final int to;
+
+        Range(YearMonth period, IntIndex.Slots<Customer> customers, int from, int to) {
+            this.period = period;
+            this.customers = customers;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                Range left = new Range(period, customers, from, mid);
+                left.fork();
+                Tally right = new Range(period, customers, mid, to).compute();
+                return left.join().merge(right);
+            }
+            try {
+                return creditRange();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private Tally creditRange() throws IOException {
+            Tally tally = new Tally();
+            long lsn = 0;
+            for (int i = from; i < to; i++) {
+                Customer cust = customers.get(i);
+                if (cust == null) continue;
+                tally.accounts++;
+                Account acc = (Account) cust.getCustAcc();
+                try {
+                    synchronized (acc) {
+                        // Deleted since the run started: skipped, as transfer and applyBatch do
+                        if (!bank.isIndexed(cust)) continue;
+                        Transaction credit = acc.creditInterest(period);
+                        if (credit == null) continue;
+                        if (journal != null) {
+                            lsn = Math.max(lsn, journal.logInterest(acc.getAccNo(), period, credit));
+                        }
+                        tally.credited++;
+                        tally.total += credit.getAmount();
+                    }
+                } catch (RuntimeException e) {
+                    tally.failed++;
+                    if (tally.failures.size() < MAX_FAILURES_KEPT) {
+                        tally.failures.add(new InterestReport.Failure(acc.getAccNo(), String.valueOf(e.getMessage())));
+                    }
+                }
+            }
+            if (journal != null && lsn > 0) {
+                journal.awaitDurable(lsn);
+            }
+            return tally;
+        }
+    }
+}
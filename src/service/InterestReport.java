@@ -0,0 +1,22 @@
+package service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import util.Money;
+
+/**
+ * Outcome of one interest run. {@code accounts} counts every account visited;
+ * those neither credited nor failed had nothing due, were already credited
+ * for the period or were deleted during the run. Only the first few failures are kept in {@code failures}.
+ */
+public record InterestReport(YearMonth period, int accounts, int credited, Money totalCredited, int failed,
+        List<Failure> failures) {
+
+    public record Failure(int accNo, String reason) {
+    }
+
+    public int skipped() {
+        return accounts - credited - failed;
+    }
+}
@@ -0,0 +1,198 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+import model.entity.Customer;
+import util.IntIndex;
+
+/**
+ * Partial-name search over customers using an n-gram inverted index.
+ *
+ * Each lower-cased name is padded with spaces and split into trigrams, plus a
+ * bigram for every word start. A query of 3+ characters looks up its trigrams
+ * and matches anywhere in the name; a 1-2 character query matches word
+ * prefixes only. Candidates from the rarest gram are confirmed against the
+ * stored normalized name, so posting lists never need to be intersected.
+ */
+final class NameIndex {
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final IntIndex<String> names = new IntIndex<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void add(int custId, String name) {
+        String normalized = normalize(name);
+        lock.writeLock().lock();
+        try {
+            if (names.putIfAbsent(custId, normalized) != null) return;
+            for (long gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(custId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int custId) {
+        lock.writeLock().lock();
+        try {
+            String normalized = names.remove(custId);
+            if (normalized == null) return;
+            for (long gram : grams(normalized)) {
+                Postings list = postings.get(gram);
+                if (list != null && list.remove(custId) && list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void rename(int custId, String newName) {
+        lock.writeLock().lock();
+        try {
+            remove(custId);
+            add(custId, newName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} matches, best first: exact name, then name
+     * prefix, then word prefix, then anywhere; shorter names first within a rank.
+     */
+    List<Customer> search(String query, int limit, IntFunction<Customer> lookup) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) return Collections.emptyList();
+        String wordQ = ' ' + q;
+
+        // Max-heap on (rank, length, id) keeps the best `limit` matches
+        PriorityQueue<long[]> best = new PriorityQueue<>(
+                (a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(b[1], a[1]));
+        lock.readLock().lock();
+        try {
+            Postings candidates = rarest(q);
+            if (candidates == null) return Collections.emptyList();
+            for (int i = 0; i < candidates.size; i++) {
+                int custId = candidates.ids[i];
+                String name = names.get(custId);
+                int rank = name == null ? -1 : rank(name, q, wordQ);
+                if (rank < 0) continue;
+                long[] entry = { ((long) rank << 32) | name.length(), custId };
+                if (best.size() < limit) {
+                    best.add(entry);
+                } else if (compare(entry, best.peek()) < 0) {
+                    best.poll();
+                    best.add(entry);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<long[]> ordered = new ArrayList<>(best);
+        ordered.sort(NameIndex::compare);
+        List<Customer> result = new ArrayList<>(ordered.size());
+        long previousId = -1;
+        for (long[] entry : ordered) {
+            // Postings hold an id once per gram; equal ids would sort next to each other
+            if (entry[1] == previousId) continue;
+            previousId = entry[1];
+            Customer c = lookup.apply((int) entry[1]);
+            if (c != null) result.add(c);
+        }
+        return result;
+    }
+
+    private static int compare(long[] a, long[] b) {
+        return a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]);
+    }
+
+    private Postings rarest(String q) {
+        Postings rarest = null;
+        if (q.length() < 3) {
+            return postings.get(q.length() == 1 ? wordStart(q.charAt(0)) : trigram(' ', q.charAt(0), q.charAt(1)));
+        }
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Postings list = postings.get(trigram(q.charAt(i), q.charAt(i + 1), q.charAt(i + 2)));
+            if (list == null) return null;
+            if (rarest == null || list.size < rarest.size) rarest = list;
+        }
+        return rarest;
+    }
+
+    /** 0 exact, 1 name prefix, 2 word prefix, 3 substring, -1 no match. */
+    private static int rank(String name, String q, String wordQ) {
+        int at = name.indexOf(q);
+        if (at < 0) return -1;
+        if (at == 0) return name.length() == q.length() ? 0 : 1;
+        if (name.indexOf(wordQ, at - 1) >= 0) return 2;
+        return q.length() < 3 ? -1 : 3;
+    }
+
+    // Grams: each distinct one once, however often it occurs in the name ("anna ananya" has "ana" twice)
+    private static long[] grams(String normalized) {
+        String padded = ' ' + normalized + ' ';
+        long[] grams = new long[2 * padded.length()];
+        int n = 0;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams[n++] = trigram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2));
+        }
+        for (int i = 0; i + 1 < padded.length(); i++) {
+            if (padded.charAt(i) == ' ' && padded.charAt(i + 1) != ' ') {
+                grams[n++] = wordStart(padded.charAt(i + 1));
+            }
+        }
+        Arrays.sort(grams, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || grams[i] != grams[distinct - 1]) grams[distinct++] = grams[i];
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static long trigram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static long wordStart(char c) {
+        return (1L << 48) | c;
+    }
+
+    static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /** Unsorted growable id list, each id once; removal is a scan plus swap with the last id. */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
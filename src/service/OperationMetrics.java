@@ -0,0 +1,148 @@
+package service;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.ToDoubleFunction;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import model.enums.BankOperation;
+import model.enums.OperationOutcome;
+import model.enums.PostingStatus;
+import util.LatencyHistogram;
+
+/**
+ * Call counts and latency histograms for every {@link BankOperation}, split by
+ * {@link OperationOutcome}. A timed call costs two {@code System.nanoTime()}
+ * reads and one lock-free {@link LatencyHistogram#record}; histograms are
+ * created on the first call with that operation and outcome, so unused
+ * combinations take no memory. Readable from the console ({@link #dump()})
+ * and over JMX ({@link #registerMBean()}).
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    public static final String OBJECT_NAME = "pinnacle.bank:type=OperationMetrics";
+
+    private static final BankOperation[] OPERATIONS = BankOperation.values();
+    private static final OperationOutcome[] OUTCOMES = OperationOutcome.values();
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final AtomicReferenceArray<LatencyHistogram> histograms =
+            new AtomicReferenceArray<>(OPERATIONS.length * OUTCOMES.length);
+    private volatile boolean enabled = true;
+
+    /** The start time to pass to {@link #record}. */
+    public long start() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /** Records a call begun at {@code startNanos} that threw {@code failure} (null: succeeded). */
+    public void record(BankOperation operation, long startNanos, Throwable failure) {
+        if (startNanos != NOT_TIMED) record(operation, startNanos, OperationOutcome.of(failure));
+    }
+
+    /** Records a call begun at {@code startNanos} that returned {@code status}. */
+    public void record(BankOperation operation, long startNanos, PostingStatus status) {
+        if (startNanos != NOT_TIMED) record(operation, startNanos, OperationOutcome.of(status));
+    }
+
+    private void record(BankOperation operation, long startNanos, OperationOutcome outcome) {
+        long elapsed = System.nanoTime() - startNanos;
+        int i = operation.ordinal() * OUTCOMES.length + outcome.ordinal();
+        LatencyHistogram h = histograms.get(i);
+        if (h == null) {
+            histograms.compareAndSet(i, null, new LatencyHistogram());
+            h = histograms.get(i);
+        }
+        h.record(elapsed);
+    }
+
+    /** Null until a call with this operation and outcome has been recorded. */
+    public LatencyHistogram histogram(BankOperation operation, OperationOutcome outcome) {
+        return histograms.get(operation.ordinal() * OUTCOMES.length + outcome.ordinal());
+    }
+
+    public long count(BankOperation operation, OperationOutcome outcome) {
+        LatencyHistogram h = histogram(operation, outcome);
+        return h == null ? 0 : h.count();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Turns timing off (calls then cost one volatile read) or back on. */
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < histograms.length(); i++) histograms.set(i, null);
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        forEach((key, h) -> counts.put(key, h.count()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getP50Micros() {
+        return micros(h -> h.valueAtPercentile(50));
+    }
+
+    @Override
+    public Map<String, Double> getP99Micros() {
+        return micros(h -> h.valueAtPercentile(99));
+    }
+
+    @Override
+    public Map<String, Double> getMaxMicros() {
+        return micros(LatencyHistogram::max);
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-26s %-34s %10s %10s %10s %10s %10s%n",
+                "Operation", "Outcome", "Count", "p50 µs", "p90 µs", "p99 µs", "Max µs"));
+        for (BankOperation op : OPERATIONS) {
+            for (OperationOutcome outcome : OUTCOMES) {
+                LatencyHistogram h = histogram(op, outcome);
+                if (h == null) continue;
+                sb.append(String.format("%-26s %-34s %,10d %,10.1f %,10.1f %,10.1f %,10.1f%n", op, outcome,
+                        h.count(), h.valueAtPercentile(50) / 1e3, h.valueAtPercentile(90) / 1e3,
+                        h.valueAtPercentile(99) / 1e3, h.max() / 1e3));
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Registers this as {@link #OBJECT_NAME} on the platform MBean server. */
+    public void registerMBean() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    private Map<String, Double> micros(ToDoubleFunction<LatencyHistogram> nanos) {
+        Map<String, Double> values = new TreeMap<>();
+        forEach((key, h) -> values.put(key, nanos.applyAsDouble(h) / 1e3));
+        return values;
+    }
+
+    private void forEach(BiConsumer<String, LatencyHistogram> visitor) {
+        for (BankOperation op : OPERATIONS) {
+            for (OperationOutcome outcome : OUTCOMES) {
+                LatencyHistogram h = histogram(op, outcome);
+                if (h != null) visitor.accept(op + "/" + outcome, h);
+            }
+        }
+    }
+}
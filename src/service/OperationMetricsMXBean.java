@@ -0,0 +1,28 @@
+package service;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link OperationMetrics}, registered by BankMain as
+ * {@value OperationMetrics#OBJECT_NAME}. Keys are {@code operation/outcome},
+ * e.g. {@code withdraw/InsufficientFundsException}; times are microseconds.
+ */
+public interface OperationMetricsMXBean {
+
+    Map<String, Long> getCounts();
+
+    Map<String, Double> getP50Micros();
+
+    Map<String, Double> getP99Micros();
+
+    Map<String, Double> getMaxMicros();
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /** The same table as the console's metrics menu. */
+    String dump();
+
+    void reset();
+}
@@ -0,0 +1,346 @@
+package service;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import model.entity.Account;
+import model.entity.Customer;
+import model.enums.AccountEventType;
+import model.enums.PostingStatus;
+import model.enums.TransactionType;
+import util.LatencyHistogram;
+
+/**
+ * Pipelined posting mode for a {@link BankServices}, in the style of the LMAX
+ * disruptor. Callers publish deposits, withdrawals and transfers into a
+ * pre-allocated ring and get a future; four stage threads then take the
+ * commands in ring order, each working through everything the stage before it
+ * has finished in one batch:
+ *
+ * <ol>
+ * <li>validate: amount, custId lookups, same-account transfers;</li>
+ * <li>apply: the balance change under the account monitors, appending its
+ * journal record while they are held, as the direct calls do;</li>
+ * <li>durable: one wait on the journal for the whole batch (group commit)
+ * instead of one per command;</li>
+ * <li>notify: completes the futures, publishes {@link model.entity.AccountEvent}s and
+ * records publish-to-completion latency ({@link #latency()}).</li>
+ * </ol>
+ *
+ * Outcomes are {@link PostingStatus}es as in {@link BankServices#applyBatch};
+ * a journal failure completes the affected futures exceptionally, as does a
+ * command that throws in any stage, without stopping the stage. Direct
+ * BankServices calls may run alongside. Futures complete on the notify thread,
+ * so dependent actions should be quick or run elsewhere. Idle stages wait per
+ * {@link WaitStrategy}, i.e. they keep a core busy: this mode is for sustained
+ * high rates.
+ */
+public final class PostingPipeline implements AutoCloseable {
+
+    public enum WaitStrategy {
+        /** Spins on the CPU: lowest latency, one core per stage. */
+        BUSY_SPIN,
+        /** Spins briefly, then yields the core between checks. */
+        YIELD;
+
+        // Waits once; returns the attempt number for the next wait
+        int idle(int attempt) {
+            if (this == YIELD && attempt >= SPINS_BEFORE_YIELD) {
+                Thread.yield();
+                return attempt;
+            }
+            Thread.onSpinWait();
+            return attempt + 1;
+        }
+    }
+
+    private static final int SPINS_BEFORE_YIELD = 100;
+    private static final int MAX_BATCH = 1024;
+
+    private final BankServices bank;
+    private final WaitStrategy wait;
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLongArray published;        // sequence last published in each slot
+    private final AtomicLong claimed = new AtomicLong();
+    private final Sequence validated = new Sequence();
+    private final Sequence applied = new Sequence();
+    private final Sequence durable = new Sequence();
+    private final Sequence notified = new Sequence();
+    private final Thread[] stages;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private volatile boolean closed;
+    private volatile boolean stopped;
+
+    /** {@code capacity} must be a power of two; it bounds the commands in flight. */
+    public PostingPipeline(BankServices bank, int capacity, WaitStrategy wait) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.bank = bank;
+        this.wait = wait;
+        this.ring = new Slot[capacity];
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Slot();
+            published.set(i, -1);
+        }
+        stages = new Thread[] {
+                stage("validate", null, validated, this::validate),
+                stage("apply", validated, applied, this::apply),
+                stage("durable", applied, durable, this::awaitDurable),
+                stage("notify", durable, notified, this::notify) };
+        for (Thread t : stages) t.start();
+    }
+
+    public CompletableFuture<PostingStatus> deposit(int custId, long amount) {
+        return publish(TransactionType.DEPOSIT, custId, 0, amount);
+    }
+
+    public CompletableFuture<PostingStatus> withdraw(int custId, long amount) {
+        return publish(TransactionType.WITHDRAWAL, custId, 0, amount);
+    }
+
+    public CompletableFuture<PostingStatus> transfer(int fromCustId, int toCustId, long amount) {
+        return publish(TransactionType.TRANSFER_OUT, fromCustId, toCustId, amount);
+    }
+
+    /** Publish-to-completion time of every command so far, in nanoseconds. */
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    /**
+     * Finishes every command already published and stops the stage threads;
+     * later calls are rejected.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        // A publisher either sees closed, or its claim is counted here and waited for
+        for (int attempt = 0; notified.get() < claimed.get();) {
+            attempt = wait.idle(attempt);
+        }
+        stopped = true;
+        for (Thread t : stages) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // 1. Publishing
+    private CompletableFuture<PostingStatus> publish(TransactionType type, int custId, int toCustId, long amount) {
+        long seq = claimed.getAndIncrement();
+        for (int attempt = 0; seq - ring.length >= notified.get();) {
+            if (stopped) throw new RejectedExecutionException("Pipeline is closed");
+            attempt = wait.idle(attempt);
+        }
+        boolean rejected = closed;
+        CompletableFuture<PostingStatus> result = rejected ? null : new CompletableFuture<>();
+        Slot slot = ring[(int) seq & mask];
+        slot.type = type;
+        slot.custId = custId;
+        slot.toCustId = toCustId;
+        slot.amount = amount;
+        slot.result = result;
+        slot.publishedNanos = System.nanoTime();
+        // A rejected slot is still published so the stages behind it are not held up
+        published.lazySet((int) seq & mask, seq);
+        if (rejected) throw new RejectedExecutionException("Pipeline is closed");
+        return result;
+    }
+
+    // 2. Stages: each handles sequences [from, to), which the stage before it has finished
+    private interface Stage {
+        void run(long from, long to);
+    }
+
+    private Thread stage(String name, Sequence upstream, Sequence done, Stage work) {
+        Thread t = new Thread(() -> {
+            long next = 0;
+            int attempt = 0;
+            while (true) {
+                long end = upstream == null ? publishedAfter(next) : Math.min(upstream.get(), next + MAX_BATCH);
+                if (end == next) {
+                    if (stopped) return;
+                    attempt = wait.idle(attempt);
+                    continue;
+                }
+                attempt = 0;
+                work.run(next, end);
+                done.lazySet(end);
+                next = end;
+            }
+        }, "posting-" + name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    // End of the run of published slots starting at next
+    private long publishedAfter(long next) {
+        long end = next;
+        while (end < next + MAX_BATCH && published.get((int) end & mask) == end) end++;
+        return end;
+    }
+
+    private void validate(long from, long to) {
+        for (long seq = from; seq < to; seq++) {
+            Slot slot = ring[(int) seq & mask];
+            slot.status = null;
+            slot.lsn = 0;
+            slot.failure = null;
+            if (slot.result == null) {
+                slot.status = PostingStatus.FAILED;         // rejected at close; nothing to do
+                continue;
+            }
+            try {
+                slot.from = bank.customerById(slot.custId);
+                slot.to = slot.type == TransactionType.TRANSFER_OUT ? bank.customerById(slot.toCustId) : null;
+            } catch (RuntimeException e) {
+                slot.status = PostingStatus.FAILED;         // not applied; notify reports the failure
+                slot.failure = e;
+                continue;
+            }
+            if (slot.amount <= 0) {
+                slot.status = PostingStatus.INVALID_AMOUNT;
+            } else if (slot.from == null || (slot.type == TransactionType.TRANSFER_OUT && slot.to == null)) {
+                slot.status = PostingStatus.UNKNOWN_ACCOUNT;
+            } else if (slot.from == slot.to) {
+                slot.status = PostingStatus.FAILED;         // same account
+            }
+        }
+    }
+
+    private void apply(long from, long to) {
+        for (long seq = from; seq < to; seq++) {
+            Slot slot = ring[(int) seq & mask];
+            if (slot.status != null) continue;
+            try {
+                slot.status = slot.type == TransactionType.TRANSFER_OUT ? applyTransfer(slot) : applyPosting(slot);
+            } catch (IOException e) {
+                // Applied in memory but not logged, as when a direct call's journal write fails
+                slot.failure = e;
+            } catch (RuntimeException e) {
+                slot.failure = e;
+            }
+        }
+    }
+
+    private PostingStatus applyPosting(Slot slot) throws IOException {
+        Account acc = (Account) slot.from.getCustAcc();
+        synchronized (acc) {
+            if (!bank.isIndexed(slot.from)) return PostingStatus.UNKNOWN_ACCOUNT;
+            PostingStatus status = slot.type == TransactionType.DEPOSIT ? acc.tryDeposit(slot.amount)
+                    : acc.tryWithdraw(slot.amount);
+            if (status == PostingStatus.APPLIED) {
+                slot.balance = acc.getBalance();
+                slot.lsn = bank.logLastTransaction(acc);
+            }
+            return status;
+        }
+    }
+
+    private PostingStatus applyTransfer(Slot slot) throws IOException {
+        Account fromAcc = (Account) slot.from.getCustAcc();
+        Account toAcc = (Account) slot.to.getCustAcc();
+        Account first = fromAcc.getAccNo() < toAcc.getAccNo() ? fromAcc : toAcc;
+        Account second = first == fromAcc ? toAcc : fromAcc;
+        synchronized (first) {
+            synchronized (second) {
+                if (!bank.isIndexed(slot.from) || !bank.isIndexed(slot.to)) return PostingStatus.UNKNOWN_ACCOUNT;
+                PostingStatus status = fromAcc.tryTransferTo(toAcc, slot.amount);
+                if (status == PostingStatus.APPLIED) {
+                    slot.balance = fromAcc.getBalance();
+                    slot.lsn = bank.logLastTransfer(fromAcc, toAcc);
+                }
+                return status;
+            }
+        }
+    }
+
+    // One journal wait covers the whole batch: records become durable in log order
+    private void awaitDurable(long from, long to) {
+        long lsn = 0;
+        for (long seq = from; seq < to; seq++) {
+            lsn = Math.max(lsn, ring[(int) seq & mask].lsn);
+        }
+        try {
+            bank.awaitDurable(lsn);
+        } catch (IOException | RuntimeException e) {
+            for (long seq = from; seq < to; seq++) {
+                Slot slot = ring[(int) seq & mask];
+                if (slot.lsn > 0) slot.failure = e;
+            }
+        }
+    }
+
+    private void notify(long from, long to) {
+        for (long seq = from; seq < to; seq++) {
+            Slot slot = ring[(int) seq & mask];
+            CompletableFuture<PostingStatus> result = slot.result;
+            if (result != null) {
+                if (slot.failure != null) {
+                    result.completeExceptionally(slot.failure);
+                } else {
+                    try {
+                        if (slot.status == PostingStatus.APPLIED) publish(slot);
+                        result.complete(slot.status);
+                    } catch (RuntimeException e) {
+                        result.completeExceptionally(e);
+                    }
+                }
+                latency.record(System.nanoTime() - slot.publishedNanos);
+            }
+            slot.clear();
+        }
+    }
+
+    private void publish(Slot slot) {
+        int accNo = slot.from.getCustAcc().getAccNo();
+        switch (slot.type) {
+        case DEPOSIT -> bank.publish(AccountEventType.DEPOSITED, slot.custId, accNo, slot.amount, slot.balance, 0, null);
+        case WITHDRAWAL -> bank.publish(AccountEventType.WITHDRAWN, slot.custId, accNo, slot.amount, slot.balance, 0,
+                null);
+        default -> bank.publish(AccountEventType.TRANSFERRED, slot.custId, accNo, slot.amount, slot.balance,
+                slot.to.getCustAcc().getAccNo(), null);
+        }
+    }
+
+    // 3. Ring entries, reused for the life of the pipeline; written by one stage at a time
+    private static final class Slot {
+        TransactionType type;           // DEPOSIT, WITHDRAWAL or TRANSFER_OUT
+        int custId;
+        int toCustId;
+        long amount;
+        long publishedNanos;
+        CompletableFuture<PostingStatus> result;    // null: rejected at close
+        Customer from;
+        Customer to;
+        PostingStatus status;
+        long balance;
+        long lsn;
+        Throwable failure;              // set: completes the future exceptionally
+
+        void clear() {
+            result = null;
+            from = null;
+            to = null;
+            failure = null;
+        }
+    }
+
+    // A stage's progress, padded so neighbouring stages' counters do not share a cache line
+    @SuppressWarnings("unused")
+    private static final class Sequence extends AtomicLong {
+        private static final long serialVersionUID = 1L;
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+}
@@ -0,0 +1,301 @@
+package service;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import exceptions.AccountNotFoundException;
+import model.entity.Account;
+import model.entity.Customer;
+import model.entity.DebitLimits;
+import model.entity.LimitPolicy;
+import model.enums.AccountType;
+import model.enums.PostingStatus;
+import persistence.HistorySegments;
+import util.IntIndex;
+
+/**
+ * Experimental side engine: nothing in the application uses it.
+ * {@link BankServices}, the console and the HTTP server post through their
+ * own shared account index, and this class has no journal, custId index,
+ * events, metrics or idempotency keys. It exists to measure single-writer
+ * sharding ({@code bench.ShardBenchmarks}) and is kept correct by
+ * {@code bench.ShardedConservationCheck}.
+ *
+ * In-memory bank engine partitioned by account number into single-writer
+ * shards. Each shard owns the accounts with {@code accNo % shards} equal to
+ * its number, its own index of them, and one thread that applies the
+ * shard's commands in arrival order; no other thread ever changes those
+ * accounts, so postings never contend on an account monitor or on a shared
+ * index. Callers get a future per command and may have many outstanding.
+ *
+ * A transfer is two steps: the source shard checks and debits
+ * ({@link Account#tryTransferOut}) and sends the credit to the destination
+ * shard ({@link Account#tryTransferIn}, same transaction id); if the credit
+ * cannot be posted (unknown account, or the credit threw) a third message
+ * gives the money back to the source. Within one shard the steps run back to
+ * back on its thread. A step that throws completes the transfer's future
+ * exceptionally rather than leaving it, and {@link #close()}, waiting.
+ * Between the steps the amount is in no balance, so the sum of all balances
+ * is exact whenever no transfer is in flight ({@link #transfersInFlight()}),
+ * in particular once every transfer future has completed. Queues are unbounded: a shard never blocks
+ * sending to another, so two shards crediting each other cannot deadlock.
+ *
+ * Accounts are addressed by accNo only; custIds are not indexed.
+ */
+public final class ShardedBank implements AutoCloseable {
+
+    private final Shard[] shards;
+    private final LimitPolicy limitPolicy = new LimitPolicy();
+    private final HistorySegments history = HistorySegments.temporary();
+    private final LongAdder transfersInFlight = new LongAdder();
+    private volatile boolean closed;
+
+    public ShardedBank(int shardCount) {
+        if (shardCount < 1) throw new IllegalArgumentException("Need at least one shard: " + shardCount);
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) shards[i] = new Shard(i);
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public int shardOf(int accNo) {
+        return Math.floorMod(accNo, shards.length);
+    }
+
+    /** Sets the debit limits for every {@code type} account that has none of its own, from the next debit on. */
+    public void setDebitLimits(AccountType type, DebitLimits limits) {
+        limitPolicy.setForType(type, limits);
+    }
+
+    /** Completes with false if the accNo is already taken. */
+    public CompletableFuture<Boolean> addCustomer(Customer customer) {
+        Account acc = (Account) customer.getCustAcc();
+        Shard shard = shardFor(acc.getAccNo());
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        shard.execute(() -> {
+            try {
+                synchronized (acc) {
+                    boolean added = shard.accounts.putIfAbsent(acc.getAccNo(), acc) == null;
+                    if (added) {
+                        acc.attachArchive(history);
+                        acc.attachLimitPolicy(limitPolicy);
+                    }
+                    result.complete(added);
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    public CompletableFuture<PostingStatus> deposit(int accNo, long amount) {
+        Shard shard = shardFor(accNo);
+        CompletableFuture<PostingStatus> result = new CompletableFuture<>();
+        shard.execute(() -> {
+            try {
+                Account acc = shard.accounts.get(accNo);
+                result.complete(acc == null ? PostingStatus.UNKNOWN_ACCOUNT : acc.tryDeposit(amount));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    public CompletableFuture<PostingStatus> withdraw(int accNo, long amount) {
+        Shard shard = shardFor(accNo);
+        CompletableFuture<PostingStatus> result = new CompletableFuture<>();
+        shard.execute(() -> {
+            try {
+                Account acc = shard.accounts.get(accNo);
+                result.complete(acc == null ? PostingStatus.UNKNOWN_ACCOUNT : acc.tryWithdraw(amount));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Completes once the whole transfer is settled: APPLIED when both sides
+     * are posted, otherwise the reason, with any debit already given back.
+     * Completes exceptionally if a step throws; a debit whose credit threw is
+     * given back first, so only a failed reversal leaves money in no balance.
+     */
+    public CompletableFuture<PostingStatus> transfer(int fromAccNo, int toAccNo, long amount) {
+        if (fromAccNo == toAccNo) {
+            throw new IllegalArgumentException("Cannot transfer to same account");
+        }
+        Shard source = shards[shardOf(fromAccNo)];
+        Shard target = shards[shardOf(toAccNo)];
+        CompletableFuture<PostingStatus> result = new CompletableFuture<>();
+        // Counted before the closed check so close() either rejects the transfer or waits for all its steps
+        transfersInFlight.increment();
+        if (closed) {
+            transfersInFlight.decrement();
+            throw new RejectedExecutionException("Bank is closed");
+        }
+        source.submit(() -> {
+            Account from = source.accounts.get(fromAccNo);
+            long transferId;
+            if (from == null) {
+                settle(result, PostingStatus.UNKNOWN_ACCOUNT);
+                return;
+            }
+            try {
+                synchronized (from) {
+                    PostingStatus debit = from.tryTransferOut(toAccNo, amount);
+                    if (debit != PostingStatus.APPLIED) {
+                        settle(result, debit);
+                        return;
+                    }
+                    transferId = from.getLastTransaction().getTransactionId();
+                }
+            } catch (RuntimeException e) {
+                fail(result, e);
+                return;
+            }
+            target.step(source, () -> {
+                Account to = target.accounts.get(toAccNo);
+                PostingStatus credit;
+                RuntimeException thrown = null;
+                try {
+                    credit = to == null ? PostingStatus.UNKNOWN_ACCOUNT
+                            : to.tryTransferIn(transferId, fromAccNo, amount);
+                } catch (RuntimeException e) {
+                    credit = PostingStatus.FAILED;
+                    thrown = e;
+                }
+                if (credit == PostingStatus.APPLIED) {
+                    settle(result, credit);
+                    return;
+                }
+                PostingStatus declined = credit;
+                RuntimeException creditFailure = thrown;
+                source.step(target, () -> {
+                    try {
+                        from.reverseTransferOut(toAccNo, amount);
+                    } catch (RuntimeException e) {
+                        if (creditFailure != null) e.addSuppressed(creditFailure);
+                        fail(result, e);
+                        return;
+                    }
+                    if (creditFailure != null) {
+                        fail(result, creditFailure);
+                    } else {
+                        settle(result, declined);
+                    }
+                });
+            });
+        });
+        return result;
+    }
+
+    /** Current balance, read without queueing (balances are published on every change). */
+    public long getBalance(int accNo) throws AccountNotFoundException {
+        Account acc = shardFor(accNo).accounts.get(accNo);
+        if (acc == null) throw new AccountNotFoundException(accNo);
+        return acc.getBalance();
+    }
+
+    public Account findByAccNo(int accNo) throws AccountNotFoundException {
+        Account acc = shardFor(accNo).accounts.get(accNo);
+        if (acc == null) throw new AccountNotFoundException(accNo);
+        return acc;
+    }
+
+    /** Sum of all balances; exact when no transfer is in flight. */
+    public long totalBalance() {
+        long total = 0;
+        for (Shard shard : shards) {
+            for (Account acc : shard.accounts) total += acc.getBalance();
+        }
+        return total;
+    }
+
+    public long transfersInFlight() {
+        return transfersInFlight.sum();
+    }
+
+    public int getCustomerCount() {
+        int count = 0;
+        for (Shard shard : shards) count += shard.accounts.size();
+        return count;
+    }
+
+    /**
+     * Rejects new commands, waits for those already queued (including the
+     * later steps of transfers in flight) and stops the shard threads.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            // Cells only count down from here, so reading zero means every transfer has settled
+            while (transfersInFlight.sum() != 0) {
+                Thread.sleep(1);
+            }
+            for (Shard shard : shards) shard.executor.shutdown();
+            for (Shard shard : shards) shard.executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        history.close();
+    }
+
+    private Shard shardFor(int accNo) {
+        return shards[shardOf(accNo)];
+    }
+
+    private void settle(CompletableFuture<PostingStatus> result, PostingStatus status) {
+        transfersInFlight.decrement();
+        result.complete(status);
+    }
+
+    // A step threw: the transfer is over either way, so close() must not wait for it
+    private void fail(CompletableFuture<PostingStatus> result, RuntimeException e) {
+        transfersInFlight.decrement();
+        result.completeExceptionally(e);
+    }
+
+    private final class Shard {
+        final IntIndex<Account> accounts = new IntIndex<>();
+        final ExecutorService executor;
+
+        Shard(int number) {
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "bank-shard-" + number);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        // An external command: refused once the bank is closing
+        void execute(Runnable command) {
+            if (closed) throw new RejectedExecutionException("Bank is closed");
+            executor.execute(command);
+        }
+
+        // A transfer step, already counted in transfersInFlight, so close() waits for it
+        void submit(Runnable step) {
+            executor.execute(step);
+        }
+
+        // The next transfer step, sent from shard current's thread: run in place when it is ours
+        void step(Shard current, Runnable step) {
+            if (current == this) {
+                step.run();
+            } else {
+                submit(step);
+            }
+        }
+    }
+}
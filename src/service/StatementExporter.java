@@ -0,0 +1,255 @@
+package service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import exceptions.AccountNotFoundException;
+import model.entity.Account;
+import model.entity.Customer;
+import model.entity.StatementSink;
+import model.enums.TransactionType;
+
+/**
+ * Bulk statement export for a date range, for one customer or the whole
+ * bank, as CSV or as a compact binary file.
+ *
+ * Rows are streamed from each account's history (see
+ * {@link Account#exportTransactions}) and encoded straight into a ring of
+ * reusable direct buffers; when the ring is full it goes to the file in one
+ * gathering write. Nothing is allocated per row: times are formatted by
+ * arithmetic with the day's text cached, and descriptions are copied as UTF-8
+ * bytes.
+ *
+ * <ul>
+ * <li>CSV: a header line, then {@code accNo,transactionId,time,type,amount,balanceAfter,"description"}
+ * with amounts in rupees and time as {@code yyyy-MM-dd HH:mm:ss}.</li>
+ * <li>Binary (big-endian): {@code "PBST"}, int version, then per row int accNo,
+ * long transactionId, long time (local, as UTC epoch millis), byte type
+ * ordinal, long amount, long balanceAfter (paise), short length and the UTF-8
+ * description.</li>
+ * </ul>
+ *
+ * One export at a time per exporter; the buffers are reused across exports.
+ */
+public final class StatementExporter {
+
+    public enum Format {
+        CSV, BINARY;
+
+        /** CSV for a {@code .csv} file name, binary otherwise. */
+        public static Format of(Path file) {
+            return file.getFileName().toString().toLowerCase().endsWith(".csv") ? CSV : BINARY;
+        }
+    }
+
+    public record Report(long accounts, long rows, long bytes, Path file) {
+    }
+
+    public static final int BINARY_VERSION = 1;
+
+    private static final byte[] CSV_HEADER = "accNo,transactionId,time,type,amount,balanceAfter,description\n"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BINARY_MAGIC = { 'P', 'B', 'S', 'T' };
+    private static final byte[][] TYPE_NAMES = new byte[TransactionType.values().length][];
+    static {
+        for (TransactionType type : TransactionType.values()) {
+            TYPE_NAMES[type.ordinal()] = type.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final int BUFFERS = 4;
+    private static final int BUFFER_BYTES = 256 * 1024;
+    private static final int ROW_OVERHEAD = 128;      // everything but the description; that is at most 16 KB quoted
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final BankServices bank;
+    private final ByteBuffer[] ring = new ByteBuffer[BUFFERS];
+    private final byte[] digits = new byte[20];
+    private final byte[] dayText = new byte[10];
+
+    // Per export
+    private FileChannel out;
+    private int current;
+    private int accNo;
+    private long rows;
+    private long bytes;
+    private long cachedDay = Long.MIN_VALUE;
+
+    public StatementExporter(BankServices bank) {
+        this.bank = bank;
+        for (int i = 0; i < BUFFERS; i++) ring[i] = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    }
+
+    /** The customer's transactions dated {@code from} to {@code to} inclusive. */
+    public Report exportCustomer(int custId, LocalDate from, LocalDate to, Format format, Path file)
+            throws AccountNotFoundException, IOException {
+        return export(List.of(bank.findById(custId)), from, to, format, file);
+    }
+
+    /**
+     * Every customer's transactions dated {@code from} to {@code to}
+     * inclusive, account by account, each oldest first. Customers added or
+     * deleted while this runs may or may not be included.
+     */
+    public Report exportAll(LocalDate from, LocalDate to, Format format, Path file) throws IOException {
+        return export(bank.customers(), from, to, format, file);
+    }
+
+    private Report export(Iterable<Customer> customers, LocalDate from, LocalDate to, Format format, Path file)
+            throws IOException {
+        current = 0;
+        rows = 0;
+        bytes = 0;
+        cachedDay = Long.MIN_VALUE;
+        for (ByteBuffer buf : ring) buf.clear();
+
+        long exported = 0;
+        StatementSink sink = format == Format.CSV ? this::csvRow : this::binaryRow;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out = channel;
+            if (format == Format.CSV) {
+                ring[0].put(CSV_HEADER);
+            } else {
+                ring[0].put(BINARY_MAGIC).putInt(BINARY_VERSION);
+            }
+            for (Customer customer : customers) {
+                Account acc = (Account) customer.getCustAcc();
+                accNo = acc.getAccNo();
+                acc.exportTransactions(from, to, sink);
+                exported++;
+            }
+            flush();
+        } finally {
+            out = null;
+        }
+        return new Report(exported, rows, bytes, file);
+    }
+
+    private void csvRow(long transactionId, long localMillis, TransactionType type, long amount, long balanceAfter,
+            byte[] text, int offset, int length, long suffix) throws IOException {
+        ByteBuffer buf = reserve(2 * length);
+        putDecimal(buf, accNo);
+        buf.put((byte) ',');
+        putDecimal(buf, transactionId);
+        buf.put((byte) ',');
+        putTime(buf, localMillis);
+        buf.put((byte) ',');
+        buf.put(TYPE_NAMES[type.ordinal()]);
+        buf.put((byte) ',');
+        putRupees(buf, amount);
+        buf.put((byte) ',');
+        putRupees(buf, balanceAfter);
+        buf.put((byte) ',').put((byte) '"');
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = text[i];
+            if (b == '"') buf.put(b);
+            buf.put(b);
+        }
+        if (suffix >= 0) putDecimal(buf, suffix);
+        buf.put((byte) '"').put((byte) '\n');
+        rows++;
+    }
+
+    private void binaryRow(long transactionId, long localMillis, TransactionType type, long amount,
+            long balanceAfter, byte[] text, int offset, int length, long suffix) throws IOException {
+        ByteBuffer buf = reserve(length);
+        buf.putInt(accNo).putLong(transactionId).putLong(localMillis).put((byte) type.ordinal())
+                .putLong(amount).putLong(balanceAfter);
+        int suffixDigits = suffix >= 0 ? toDigits(suffix) : 0;
+        buf.putShort((short) (length + suffixDigits));
+        buf.put(text, offset, length);
+        buf.put(digits, digits.length - suffixDigits, suffixDigits);
+        rows++;
+    }
+
+    // The buffer to write the next row to, moving along the ring (and flushing it when full) first if needed
+    private ByteBuffer reserve(int textBytes) throws IOException {
+        if (ring[current].remaining() < textBytes + ROW_OVERHEAD) {
+            if (++current == BUFFERS) flush();
+        }
+        return ring[current];
+    }
+
+    // One gathering write of every filled buffer in the ring
+    private void flush() throws IOException {
+        int used = Math.min(current + 1, BUFFERS);
+        for (int i = 0; i < used; i++) ring[i].flip();
+        long remaining = 0;
+        for (int i = 0; i < used; i++) remaining += ring[i].remaining();
+        while (remaining > 0) {
+            remaining -= out.write(ring, 0, used);
+        }
+        for (int i = 0; i < used; i++) {
+            bytes += ring[i].position();
+            ring[i].clear();
+        }
+        current = 0;
+    }
+
+    private void putTime(ByteBuffer buf, long localMillis) {
+        long day = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+        if (day != cachedDay) {
+            // Once per day of rows, not per row
+            LocalDate date = LocalDate.ofEpochDay(day);
+            int year = date.getYear();
+            dayText[0] = (byte) ('0' + year / 1000 % 10);
+            dayText[1] = (byte) ('0' + year / 100 % 10);
+            dayText[2] = (byte) ('0' + year / 10 % 10);
+            dayText[3] = (byte) ('0' + year % 10);
+            dayText[4] = '-';
+            dayText[5] = (byte) ('0' + date.getMonthValue() / 10);
+            dayText[6] = (byte) ('0' + date.getMonthValue() % 10);
+            dayText[7] = '-';
+            dayText[8] = (byte) ('0' + date.getDayOfMonth() / 10);
+            dayText[9] = (byte) ('0' + date.getDayOfMonth() % 10);
+            cachedDay = day;
+        }
+        buf.put(dayText).put((byte) ' ');
+        int seconds = (int) (Math.floorMod(localMillis, MILLIS_PER_DAY) / 1000);
+        putTwoDigits(buf, seconds / 3600);
+        buf.put((byte) ':');
+        putTwoDigits(buf, seconds / 60 % 60);
+        buf.put((byte) ':');
+        putTwoDigits(buf, seconds % 60);
+    }
+
+    private static void putTwoDigits(ByteBuffer buf, int value) {
+        buf.put((byte) ('0' + value / 10)).put((byte) ('0' + value % 10));
+    }
+
+    private void putRupees(ByteBuffer buf, long paise) {
+        if (paise < 0) {
+            buf.put((byte) '-');
+            paise = -paise;
+        }
+        putDecimal(buf, paise / 100);
+        buf.put((byte) '.');
+        putTwoDigits(buf, (int) (paise % 100));
+    }
+
+    private void putDecimal(ByteBuffer buf, long value) {
+        if (value < 0) {
+            buf.put((byte) '-');
+            value = -value;
+        }
+        int n = toDigits(value);
+        buf.put(digits, digits.length - n, n);
+    }
+
+    // Writes value's decimal digits to the end of the digits scratch array; returns how many
+    private int toDigits(long value) {
+        int at = digits.length;
+        do {
+            digits[--at] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        return digits.length - at;
+    }
+}
@@ -1,20 +1,56 @@
 package ui;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import exceptions.*;
 import model.entity.*;
 import model.enums.AccountType;
+import service.AccountEventListener;
 import service.BankServices;
 import util.BankConstants;
-
-public class InputHandler {
+import util.Money;
+
+/**
+ * Console prompts and menus. Also the console's {@link AccountEventListener}:
+ * events are queued as they are published, possibly from background threads,
+ * and printed on this thread before the next prompt.
+ */
+public class InputHandler implements AccountEventListener {
 	private final Scanner sc;
+	private final ConcurrentLinkedQueue<AccountEvent> events = new ConcurrentLinkedQueue<>();
 
 	public InputHandler(Scanner sc) {
 		this.sc = sc;
 	}
 
+	@Override
+	public void onEvent(AccountEvent event) {
+		events.offer(event);
+	}
+
+	/** Prints every event queued so far. */
+	public void printEvents() {
+		AccountEvent e;
+		while ((e = events.poll()) != null) {
+			System.out.println(switch (e.type()) {
+			case ACCOUNT_CREATED -> "✅ Account created: " + e.text();
+			case CUSTOMER_DELETED -> "🗑️ Account DELETED: " + e.text();
+			case NAME_UPDATED -> "✅ Name updated to: " + e.text();
+			case ADDRESS_UPDATED -> "✅ Address updated";
+			case DEPOSITED -> "✅ Deposited ₹" + Money.format(e.amount());
+			case WITHDRAWN -> "✅ Withdrew ₹" + Money.format(e.amount());
+			case TRANSFERRED -> "✅ Transferred ₹" + Money.format(e.amount()) + " from A/c " + e.accNo()
+					+ " to A/c " + e.counterAccNo();
+			case SNAPSHOT_FAILED -> "⚠️ Snapshot failed: " + e.text();
+			});
+		}
+	}
+
 	public int getInt(String prompt, int min, int max) {
+		printEvents();
 		while (true) {
 			System.out.print(prompt);
 			try {
@@ -29,6 +65,7 @@ public class InputHandler {
 	}
 
 	public double getDouble(String prompt, double min) {
+		printEvents();
 		while (true) {
 			System.out.print(prompt);
 			try {
@@ -42,7 +79,19 @@ public class InputHandler {
 		}
 	}
 
+	/**
+	 * Reads a rupee amount and returns it as exact paise (banker's rounding).
+	 */
+	public long getPaise(String prompt, long minPaise) {
+		while (true) {
+			long val = Money.toPaise(getDouble(prompt, Money.toRupees(minPaise)));
+			if (val >= minPaise) return val;
+			System.out.println("Must be >= " + Money.format(minPaise));
+		}
+	}
+
 	public String getString(String prompt) {
+		printEvents();
 		System.out.print(prompt);
 		return sc.nextLine().trim();
 	}
@@ -52,8 +101,8 @@ public class InputHandler {
 		String name = getString("Customer Name: ");
 		int accNo = getInt("Account No: ", 100000, 999999);
 		String ifsc = getString("IFSC Code: ");
-		double balance = getDouble("Initial Balance (₹): ", util.BankConstants.MIN_BALANCE);
-		String type = getString("Type (SAVINGS/CURRENT): ").toUpperCase();
+		long balance = getPaise("Initial Balance (₹): ", BankConstants.MIN_BALANCE);
+		String type = getString("Type (SAVINGS/CURRENT): ").toUpperCase(Locale.ROOT);
 
 		BankAccount acc = switch (type) {
 		case "SAVINGS" -> {
@@ -72,7 +121,7 @@ public class InputHandler {
 	}
 
 	public void search(BankServices bank) {
-		if (bank.getAllCustomers().isEmpty()) {
+		if (bank.getCustomerCount() == 0) {
 			System.out.println("No accounts found!");
 			return;
 		}
@@ -104,33 +153,25 @@ public class InputHandler {
 
 	private void searchByAccountNo(BankServices bank) {
 		int accNo = getInt("Enter Account Number: ", 100000, 999999);
-		boolean found = false;
-
-		for (Customer cust : bank.getAllCustomers()) {
-			if (cust.getCustAcc().getAccNo() == accNo) {
-				displayCustomerDetails(cust);
-				found = true;
-				break;
-			}
+		try {
+			displayCustomerDetails(bank.findByAccNo(accNo));
+		} catch (AccountNotFoundException e) {
+			System.out.println("❌ Account not found!");
 		}
-		if (!found) System.out.println("❌ Account not found!");
 	}
 
 	private void searchByName(BankServices bank) {
-		String name = getString("Enter name (partial OK): ").toLowerCase();
-		boolean foundAny = false;
+		String name = getString("Enter name (partial OK): ");
+		List<Customer> matches = bank.searchByName(name, BankConstants.MAX_DISPLAY_ACCOUNTS);
 
-		for (Customer cust : bank.getAllCustomers()) {
-			if (cust.getCustName().toLowerCase().contains(name)) {
-				displayCustomerDetails(cust);
-				foundAny = true;
-			}
+		for (Customer cust : matches) {
+			displayCustomerDetails(cust);
 		}
-		if (!foundAny) System.out.println("❌ No customers found with name: '" + name + "'");
+		if (matches.isEmpty()) System.out.println("❌ No customers found with name: '" + name + "'");
 	}
 
 	public void transaction(BankServices bank) {
-		if (bank.getAllCustomers().isEmpty()) {
+		if (bank.getCustomerCount() == 0) {
 			System.out.println("No customers!");
 			return;
 		}
@@ -147,17 +188,17 @@ public class InputHandler {
 					int id = getInt("Enter Customer ID: ", 1, 999999);
 					Customer cust = bank.findById(id);
 					System.out.println("\nAccount: " + cust.getCustAcc());
-					double amount = getDouble("Deposit amount (₹): ", 0.01);
+					long amount = getPaise("Deposit amount (₹): ", 1);
 					bank.deposit(id, amount);
-					System.out.println("✅ Deposit successful");
+					printEvents();      // the DEPOSITED event is the confirmation
 				}
 				case 2 -> {
 					int id = getInt("Enter Customer ID: ", 1, 999999);
 					Customer cust = bank.findById(id);
 					System.out.println("\nAccount: " + cust.getCustAcc());
-					double amount = getDouble("Withdraw amount (₹): ", 0.01);
+					long amount = getPaise("Withdraw amount (₹): ", 1);
 					bank.withdraw(id, amount);
-					System.out.println("✅ Withdrawal successful");
+					printEvents();      // the WITHDRAWN event is the confirmation
 				}
 				case 3 ->{
 						transferBetweenAccount(bank);
@@ -174,20 +215,21 @@ public class InputHandler {
 		try {
 			int fromId = getInt("From Customer Id: ",1,999999);
 			int toId = getInt("To Customer Id: ",1,999999);
-			double amount = getDouble("Transfer amount (₹): ", 0.01);
+			long amount = getPaise("Transfer amount (₹): ", 1);
 			Customer from = bank.findById(fromId);
 			Customer to = bank.findById(toId);
-			System.out.println("From Balance: ₹" + String.format("%.2f", from.getCustAcc().getBalance()));
-			System.out.println("To Balance: ₹" + String.format("%.2f", to.getCustAcc().getBalance()));
+			System.out.println("From Balance: ₹" + Money.format(from.getCustAcc().getBalance()));
+			System.out.println("To Balance: ₹" + Money.format(to.getCustAcc().getBalance()));
 			bank.transfer(fromId, toId, amount);
 		}
 		catch(Exception e) {
+		printEvents();
 		System.out.println("❌ Transfer failed: " + e.getMessage());
 		}
 	}
 
 	public void update(BankServices bank) {
-		if (bank.getAllCustomers().isEmpty()) {
+		if (bank.getCustomerCount() == 0) {
 			System.out.println("No accounts!");
 			return;
 		}
@@ -204,15 +246,16 @@ public class InputHandler {
 			switch (choice) {
 			case 1 -> {
 				String newName = getString("Enter new name: ");
-				cust.setCustName(newName);
+				bank.updateName(id, newName);
 			}
-			case 2 -> cust.setCustAddr(getAddress());
+			case 2 -> bank.updateAddress(id, getAddress());
 			case 3 -> {
 				String newName = getString("Enter new name: ");
-				cust.setCustName(newName);
-				cust.setCustAddr(getAddress());
+				bank.updateName(id, newName);
+				bank.updateAddress(id, getAddress());
 			}
 			}
+			printEvents();
 			System.out.println("\n✅ UPDATE SUCCESSFUL!");
 			displayCustomerDetails(cust);
 		} catch (Exception e) {
@@ -221,7 +264,7 @@ public class InputHandler {
 	}
 
 	public void delete(BankServices bank) {
-		if (bank.getAllCustomers().isEmpty()) {
+		if (bank.getCustomerCount() == 0) {
 			System.out.println("No accounts!");
 			return;
 		}
@@ -232,7 +275,7 @@ public class InputHandler {
 			displayCustomerDetails(cust);
 
 			if (cust.getCustAcc().getBalance() > 0) {
-				System.out.println("⚠️ Cannot delete - Balance ₹" + cust.getCustAcc().getBalance());
+				System.out.println("⚠️ Cannot delete - Balance ₹" + Money.format(cust.getCustAcc().getBalance()));
 				return;
 			}
 
@@ -243,8 +286,7 @@ public class InputHandler {
 			}
 
 			bank.deleteCustomer(id);
-			System.out.println("🗑️ Account DELETED: " + cust.getCustName());
-		} catch (AccountNotFoundException e) {
+		} catch (Exception e) {
 			System.out.println("❌ " + e.getMessage());
 		}
 	}
@@ -252,7 +294,15 @@ public class InputHandler {
 	public void statement(BankServices bank) {
 		try {
 			int id = getInt("Enter Customer ID: ", 1, 999999);
-			String countStr = getString("Last how many? (10/all): ");
+			String countStr = getString("Last how many? (10/all/range): ");
+			if (countStr.equalsIgnoreCase("range")) {
+				LocalDate from = LocalDate.parse(getString("From (yyyy-mm-dd): "));
+				LocalDate to = LocalDate.parse(getString("To (yyyy-mm-dd): "));
+				List<Transaction> rows = bank.getTransactions(id, from, to);
+				System.out.println("\n=== " + rows.size() + " TRANSACTIONS " + from + " TO " + to + " ===");
+				rows.forEach(System.out::println);
+				return;
+			}
 			int count = countStr.equalsIgnoreCase("all") ? BankConstants.MAX_STATEMENT : Integer.parseInt(countStr);
 			bank.printStatement(id, count);
 		} catch (Exception e) {
@@ -1,8 +1,14 @@
 package util;
 
+/**
+ * Bank-wide limits. All money values are in paise (see {@link Money}).
+ */
 public class BankConstants {
-    public static final double MIN_BALANCE = 1000.0;
+    public static final long MIN_BALANCE = 100_000L;               // ₹1,000.00
     public static final int MAX_STATEMENT = 50;
     public static final int MAX_DISPLAY_ACCOUNTS = 20;  // ADD THIS
-    public static final double HIGH_BALANCE_THRESHOLD = 5000.0;  // ADD THIS
+    public static final long HIGH_BALANCE_THRESHOLD = 500_000L;    // ₹5,000.00
+    public static final long DAILY_LIMIT = 5_000_000L;             // ₹50,000.00
+    public static final int IDEMPOTENCY_KEYS = 1_000_000;          // remembered at most, oldest dropped first
+    public static final long IDEMPOTENCY_TTL_SECONDS = 24 * 60 * 60;
 }
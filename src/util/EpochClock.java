@@ -0,0 +1,58 @@
+package util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.function.LongSupplier;
+
+/**
+ * Calendar day and minute for hot paths, without a {@code LocalDate.now()}
+ * per call. The local day and the instant it ends are worked out once, when
+ * the day changes; until then reading the day is one millisecond read and a
+ * compare. Minutes are epoch minutes (UTC), which need no zone at all.
+ */
+public final class EpochClock {
+
+    public static final EpochClock SYSTEM = new EpochClock(ZoneId.systemDefault(), System::currentTimeMillis);
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private record Day(int epochDay, long startMillis, long endMillis) {
+    }
+
+    private final ZoneId zone;
+    private final LongSupplier millis;
+    private volatile Day day;
+
+    public EpochClock(ZoneId zone, LongSupplier millis) {
+        this.zone = zone;
+        this.millis = millis;
+        this.day = dayAt(millis.getAsLong());
+    }
+
+    public long millis() {
+        return millis.getAsLong();
+    }
+
+    /** Today's local date as {@link LocalDate#toEpochDay()}. */
+    public int epochDay() {
+        long now = millis.getAsLong();
+        Day current = day;
+        if (now >= current.endMillis || now < current.startMillis) {
+            current = dayAt(now);       // racing threads compute the same value
+            day = current;
+        }
+        return current.epochDay;
+    }
+
+    public long epochMinute() {
+        return Math.floorDiv(millis.getAsLong(), MILLIS_PER_MINUTE);
+    }
+
+    private Day dayAt(long now) {
+        LocalDate date = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+        long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new Day((int) date.toEpochDay(), start, end);
+    }
+}
@@ -0,0 +1,85 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Unique, increasing 64-bit ids built from a timestamp, a sequence and a node
+ * number, so several bank processes can share one id space:
+ *
+ * <pre>
+ *   0 | 41 bits millis since 2024-01-01 UTC | 12 bits sequence | 10 bits node
+ * </pre>
+ *
+ * The millis and sequence together form one counter ("tick"). Most calls take
+ * the next tick with a single {@code getAndIncrement}, which never retries;
+ * the first call in a new millisecond moves the counter up to that
+ * millisecond. Ids are therefore strictly increasing in the order the calls
+ * happen, across threads, which the journal relies on to recognise rows it
+ * has already replayed. A burst of more than 4096 ids in one millisecond
+ * borrows ticks from the next one, and a clock that steps back is ignored
+ * until it catches up; either way ids stay unique and increasing, only their
+ * timestamp runs slightly ahead.
+ *
+ * Ids from before this generator (small ints) compare below every new one.
+ */
+public final class IdGenerator {
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;    // 2024-01-01T00:00:00Z
+
+    /** This process's generator; the node comes from {@code -Dbank.node=N} (0-1023, default 0). */
+    public static final IdGenerator SYSTEM = new IdGenerator(Integer.getInteger("bank.node", 0),
+            System::currentTimeMillis);
+
+    private final long node;
+    private final LongSupplier millis;
+    private final AtomicLong ticks;
+
+    public IdGenerator(int node, LongSupplier millis) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node must be 0-" + MAX_NODE + ": " + node);
+        }
+        this.node = node;
+        this.millis = millis;
+        this.ticks = new AtomicLong(floor());
+    }
+
+    public long next() {
+        long floor = floor();
+        long tick = ticks.getAndIncrement();
+        while (tick < floor) {
+            // Behind the clock: claim the millisecond's first tick unless another call moved the counter
+            if (ticks.compareAndSet(tick + 1, floor + 1)) return id(floor);
+            tick = ticks.getAndIncrement();
+        }
+        return id(tick);
+    }
+
+    /**
+     * Recovery: makes every later id larger than {@code id}, e.g. one read
+     * back from the journal after a restart with the clock set back.
+     */
+    public void observe(long id) {
+        ticks.accumulateAndGet((id >>> NODE_BITS) + 1, Math::max);
+    }
+
+    /** The millisecond (Unix epoch) encoded in {@code id}. */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static int nodeOf(long id) {
+        return (int) (id & MAX_NODE);
+    }
+
+    private long floor() {
+        return Math.max(millis.getAsLong() - EPOCH_MILLIS, 0) << SEQUENCE_BITS;
+    }
+
+    private long id(long tick) {
+        return tick << NODE_BITS | node;
+    }
+}
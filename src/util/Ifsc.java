@@ -0,0 +1,67 @@
+package util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * IFSC (Indian Financial System Code) validation and interning.
+ *
+ * The format is four letters, a zero, then six letters or digits (the branch
+ * code), e.g. {@code SBIN0001234}; letters may be given in either case. The
+ * check is a plain char scan with no regex and no allocation. Valid codes are
+ * interned in upper case, so the many accounts of one branch share a single
+ * String.
+ */
+public final class Ifsc {
+
+    public static final int LENGTH = 11;
+
+    // Only valid codes are interned, so this stays at roughly one entry per branch
+    private static final ConcurrentHashMap<String, String> CANONICAL = new ConcurrentHashMap<>();
+
+    private Ifsc() {
+    }
+
+    public static boolean isValid(CharSequence code) {
+        if (code == null || code.length() != LENGTH) return false;
+        for (int i = 0; i < 4; i++) {
+            if (!isLetter(code.charAt(i))) return false;
+        }
+        if (code.charAt(4) != '0') return false;
+        for (int i = 5; i < LENGTH; i++) {
+            char c = code.charAt(i);
+            if (!isLetter(c) && (c < '0' || c > '9')) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the shared upper-case instance of {@code code}, or null if it is
+     * not a valid IFSC. Upper-case input that is already interned allocates nothing.
+     */
+    public static String canonical(String code) {
+        String shared = CANONICAL.get(code == null ? "" : code);
+        if (shared != null) return shared;
+        if (!isValid(code)) return null;
+        String upper = toUpper(code);
+        shared = CANONICAL.putIfAbsent(upper, upper);
+        return shared != null ? shared : upper;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static String toUpper(String code) {
+        for (int i = 0; i < LENGTH; i++) {
+            char c = code.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                char[] chars = code.toCharArray();
+                for (int j = i; j < LENGTH; j++) {
+                    if (chars[j] >= 'a' && chars[j] <= 'z') chars[j] -= 'a' - 'A';
+                }
+                return new String(chars);
+            }
+        }
+        return code;
+    }
+}
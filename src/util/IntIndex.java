@@ -0,0 +1,239 @@
+package util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing map from primitive {@code int} keys to values, with lock-free
+ * reads and serialized writes.
+ *
+ * Keys live in an {@code int[]} (no {@code Integer} boxing) and lookups probe
+ * linearly without locking. A slot's key is written once, before its first value
+ * is published, and never changes for the lifetime of that table; deletes leave
+ * a tombstone that only the same key may reuse, and tombstones are dropped when
+ * the table is rebuilt. That keeps concurrent readers from ever pairing a key
+ * with another key's value.
+ *
+ * Iteration walks the current table directly (no copy) and is weakly consistent,
+ * like the {@code java.util.concurrent} collections.
+ */
+public final class IntIndex<V> implements Iterable<V> {
+
+    private static final Object TOMBSTONE = new Object();
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final int MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private static final class Table {
+        final int[] keys;
+        final Object[] vals;     // null = never used, TOMBSTONE = deleted, else live
+        final int mask;
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            vals = new Object[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private volatile Table table;
+    private volatile int size;
+    private int used;                   // live + tombstones, guarded by this
+
+    public IntIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntIndex(int expectedSize) {
+        table = new Table(capacityFor(expectedSize));
+    }
+
+    // 1. Lock-free reads
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        Table t = table;
+        Object[] vals = t.vals;
+        for (int i = hash(key) & t.mask; ; i = (i + 1) & t.mask) {
+            Object v = SLOT.getAcquire(vals, i);
+            if (v == null) return null;
+            if (v != TOMBSTONE && t.keys[i] == key) return (V) v;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 2. Writes
+    /**
+     * Maps {@code key} to {@code value} unless already mapped.
+     *
+     * @return the existing value, or null if {@code value} was inserted
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized V putIfAbsent(int key, V value) {
+        if (value == null) throw new NullPointerException("value");
+        Table t = table;
+        for (int i = hash(key) & t.mask; ; i = (i + 1) & t.mask) {
+            Object v = t.vals[i];
+            if (v == null) {
+                if (used + 1 > (int) (t.vals.length * LOAD_FACTOR)) {
+                    rebuild(size + 1);
+                    return putIfAbsent(key, value);
+                }
+                t.keys[i] = key;
+                SLOT.setRelease(t.vals, i, value);
+                used++;
+                size++;
+                return null;
+            }
+            if (t.keys[i] == key) {
+                if (v != TOMBSTONE) return (V) v;
+                SLOT.setRelease(t.vals, i, value);    // same key: safe to reuse
+                size++;
+                return null;
+            }
+        }
+    }
+
+    /** Removes {@code key} in O(1); returns the removed value or null. */
+    @SuppressWarnings("unchecked")
+    public synchronized V remove(int key) {
+        Table t = table;
+        for (int i = hash(key) & t.mask; ; i = (i + 1) & t.mask) {
+            Object v = t.vals[i];
+            if (v == null) return null;
+            if (v != TOMBSTONE && t.keys[i] == key) {
+                SLOT.setRelease(t.vals, i, TOMBSTONE);
+                size--;
+                return (V) v;
+            }
+        }
+    }
+
+    /** Removes {@code key} only while it still maps to {@code value}. */
+    public synchronized boolean remove(int key, V value) {
+        if (get(key) != value) return false;
+        remove(key);
+        return true;
+    }
+
+    private void rebuild(int liveNeeded) {
+        Table old = table;
+        // Leave headroom so a table full of tombstones is not rebuilt on every insert
+        Table t = new Table(capacityFor((int) Math.min(Integer.MAX_VALUE / 2, liveNeeded * 3L / 2)));
+        for (int i = 0; i < old.vals.length; i++) {
+            Object v = old.vals[i];
+            if (v != null && v != TOMBSTONE) {
+                int j = hash(old.keys[i]) & t.mask;
+                while (t.vals[j] != null) j = (j + 1) & t.mask;
+                t.keys[j] = old.keys[i];
+                t.vals[j] = v;
+            }
+        }
+        used = size;
+        table = t;                      // volatile publish of the fully built table
+    }
+
+    // 3. Iteration view
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(Consumer<? super V> action) {
+        Object[] vals = table.vals;
+        for (int i = 0; i < vals.length; i++) {
+            Object v = SLOT.getAcquire(vals, i);
+            if (v != null && v != TOMBSTONE) action.accept((V) v);
+        }
+    }
+
+    /**
+     * The current table's slots, so a walk can be split into index ranges
+     * (e.g. across ForkJoin tasks) without copying the values; empty and
+     * deleted slots read as null. Weakly consistent like iteration: a later
+     * rebuild is not seen, so values removed after it may still appear.
+     */
+    public Slots<V> slots() {
+        return new Slots<>(table.vals);
+    }
+
+    /** A fixed table's slots; see {@link #slots()}. */
+    public static final class Slots<V> {
+        private final Object[] vals;
+
+        private Slots(Object[] vals) {
+            this.vals = vals;
+        }
+
+        public int length() {
+            return vals.length;
+        }
+
+        /** The value in slot {@code i}, or null if it is empty or deleted. */
+        @SuppressWarnings("unchecked")
+        public V get(int i) {
+            Object v = SLOT.getAcquire(vals, i);
+            return v == TOMBSTONE ? null : (V) v;
+        }
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        Object[] vals = table.vals;
+        return new Iterator<V>() {
+            private int cursor;
+            private V nextValue = find();
+
+            @SuppressWarnings("unchecked")
+            private V find() {
+                while (cursor < vals.length) {
+                    Object v = SLOT.getAcquire(vals, cursor++);
+                    if (v != null && v != TOMBSTONE) return (V) v;
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextValue != null;
+            }
+
+            @Override
+            public V next() {
+                V v = nextValue;
+                if (v == null) throw new NoSuchElementException();
+                nextValue = find();
+                return v;
+            }
+        };
+    }
+
+    // 4. Hashing
+    private static int hash(int key) {
+        // murmur3 finalizer: spreads sequential ids across the table
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+        int capacity = Integer.highestOneBit(Math.max(needed, MIN_CAPACITY) - 1) << 1;
+        if (capacity <= 0) throw new IllegalArgumentException("Index too large: " + expectedSize);
+        return capacity;
+    }
+}
@@ -0,0 +1,99 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, log-linear histogram of non-negative values (typically
+ * nanoseconds), in the style of HdrHistogram: 64 linear sub-buckets per power
+ * of two, so any recorded value is reported within 1/64 (about 1.6%) of itself,
+ * from 0 up to {@link Long#MAX_VALUE}, in 32 KB. Recording is lock-free and safe
+ * from many threads; reads are weakly consistent while recording continues.
+ *
+ * A record touches only its value's slot and, when the value is a new high
+ * for the calling thread's stripe, that stripe's maximum: there is no shared
+ * total or maximum for every thread to write. The count is summed from the
+ * slots and the maximum from the stripes when read.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;                      // 128 slots below 128, then 64 per octave
+    private static final int HALF = 1 << (SUB_BITS - 1);
+    private static final int SLOTS = (64 - SUB_BITS + 1) * HALF + HALF;
+    private static final int STRIPES = 16;                      // power of two
+    private static final int STRIDE = 16;                       // longs between stripes: 128 bytes, own cache lines
+
+    private final AtomicLongArray counts = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray maxima = new AtomicLongArray(STRIPES * STRIDE);
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(slot(value));
+        raiseMax(stripe(), value);
+    }
+
+    /** Adds everything recorded in {@code other} to this histogram. */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < SLOTS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        raiseMax(stripe(), other.max());
+    }
+
+    public long count() {
+        long n = 0;
+        for (int i = 0; i < SLOTS; i++) n += counts.get(i);
+        return n;
+    }
+
+    public long max() {
+        long max = 0;
+        for (int s = 0; s < STRIPES; s++) max = Math.max(max, maxima.get(s * STRIDE));
+        return max;
+    }
+
+    /**
+     * The value at or below which {@code percentile} percent of recorded values
+     * fall (upper edge of its slot, capped at the maximum); 0 when empty.
+     */
+    public long valueAtPercentile(double percentile) {
+        long n = count();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(n * Math.min(100.0, percentile) / 100.0));
+        long max = max();
+        long seen = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(highestInSlot(i), max);
+        }
+        return max;
+    }
+
+    public void reset() {
+        for (int i = 0; i < SLOTS; i++) counts.set(i, 0);
+        for (int s = 0; s < STRIPES; s++) maxima.set(s * STRIDE, 0);
+    }
+
+    // Threads keep to their own stripe, so a new high is written where few other threads look
+    private static int stripe() {
+        return (int) Thread.currentThread().getId() & (STRIPES - 1);
+    }
+
+    private void raiseMax(int stripe, long value) {
+        int i = stripe * STRIDE;
+        long seen = maxima.get(i);
+        while (value > seen && !maxima.compareAndSet(i, seen, value)) seen = maxima.get(i);
+    }
+
+    // Values below 128 get their own slot; above, slot = octave * 64 + top 7 bits
+    static int slot(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1));
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    static long highestInSlot(int slot) {
+        int shift = slot < 2 * HALF ? 0 : slot / HALF - 1;
+        long sub = slot - (long) shift * HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,148 @@
+package util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Exact money in paise (1/100 rupee).
+ *
+ * Hot paths keep amounts as primitive {@code long} paise and use the static
+ * helpers below, so no objects are allocated per posting. {@code Money}
+ * instances are the value type at the report and API boundary
+ * ({@code Dashboard}, {@code InterestReport}, {@code PostingResult.balance()}),
+ * created once per figure handed out.
+ * Rupee doubles are converted once, at the UI boundary, with banker's rounding.
+ */
+public final class Money {
+
+    public static final long PAISE_PER_RUPEE = 100L;
+    public static final Money ZERO = new Money(0L);
+
+    // 1. Fields
+    private final long paise;
+
+    // 2. Construction
+    private Money(long paise) {
+        this.paise = paise;
+    }
+
+    public static Money ofPaise(long paise) {
+        return paise == 0L ? ZERO : new Money(paise);
+    }
+
+    // 3. Value operations
+    public long getPaise() {
+        return paise;
+    }
+
+    /** As {@link #format(long)}, e.g. {@code "1234.56"}. */
+    public String format() {
+        return format(paise);
+    }
+
+    /** As {@link #formatGrouped(long)}, e.g. {@code "1,234.56"}. */
+    public String formatGrouped() {
+        return formatGrouped(paise);
+    }
+
+    // 4. Primitive helpers (allocation-free)
+    /**
+     * Converts a rupee amount (as typed by a user) to paise, rounding half-even.
+     */
+    public static long toPaise(double rupees) {
+        if (Double.isNaN(rupees) || Double.isInfinite(rupees)) {
+            throw new IllegalArgumentException("Invalid amount: " + rupees);
+        }
+        return BigDecimal.valueOf(rupees)
+                .setScale(2, RoundingMode.HALF_EVEN)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /**
+     * Parses a rupee amount written in text (e.g. "1500", "1500.5", "1500.50")
+     * exactly; more than two decimal places is an error, not a rounding.
+     */
+    public static long parse(String rupees) {
+        try {
+            return new BigDecimal(rupees.trim()).setScale(2, RoundingMode.UNNECESSARY)
+                    .unscaledValue()
+                    .longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid amount: " + rupees);
+        }
+    }
+
+    public static double toRupees(long paise) {
+        return paise / (double) PAISE_PER_RUPEE;
+    }
+
+    /**
+     * Computes {@code value * numerator / denominator} with banker's rounding
+     * (round half to even), entirely in long arithmetic.
+     */
+    public static long mulDivHalfEven(long value, long numerator, long denominator) {
+        if (denominator <= 0) {
+            throw new IllegalArgumentException("Denominator must be positive: " + denominator);
+        }
+        long product = Math.multiplyExact(value, numerator);
+        long quotient = product / denominator;
+        long remainder = Math.abs(product % denominator);
+        long twice = remainder * 2;
+        if (twice > denominator || (twice == denominator && (quotient & 1L) != 0)) {
+            quotient += product < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Formats paise as rupees with two decimals, e.g. {@code 123456 -> "1234.56"}.
+     */
+    public static String format(long paise) {
+        return appendTo(new StringBuilder(16), paise, false).toString();
+    }
+
+    /**
+     * Formats paise as rupees with thousands grouping, e.g. {@code "1,234.56"}.
+     */
+    public static String formatGrouped(long paise) {
+        return appendTo(new StringBuilder(20), paise, true).toString();
+    }
+
+    private static StringBuilder appendTo(StringBuilder sb, long paise, boolean grouped) {
+        if (paise < 0) {
+            sb.append('-');
+        }
+        long abs = Math.abs(paise);
+        String rupees = Long.toString(abs / PAISE_PER_RUPEE);
+        if (grouped) {
+            int lead = rupees.length() % 3 == 0 ? 3 : rupees.length() % 3;
+            sb.append(rupees, 0, lead);
+            for (int i = lead; i < rupees.length(); i += 3) {
+                sb.append(',').append(rupees, i, i + 3);
+            }
+        } else {
+            sb.append(rupees);
+        }
+        long fraction = abs % PAISE_PER_RUPEE;
+        return sb.append('.').append(fraction < 10 ? "0" : "").append(fraction);
+    }
+
+    // 5. Object methods
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Money)) return false;
+        return paise == ((Money) obj).paise;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(paise);
+    }
+
+    @Override
+    public String toString() {
+        return "₹" + format(paise);
+    }
+}
@@ -0,0 +1,51 @@
+package util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One-thread-per-task executors that use virtual threads when the runtime has
+ * them (JDK 21+) and fall back to a cached pool of daemon platform threads
+ * otherwise. Looked up reflectively so the code still builds on JDK 17.
+ */
+public final class VirtualThreads {
+
+    private static final Method NEW_VIRTUAL_EXECUTOR = lookup();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * An executor that starts a new thread for every task; {@code name} prefixes
+     * the fallback platform threads.
+     */
+    public static ExecutorService newPerTaskExecutor(String name) {
+        if (NEW_VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // fall through to platform threads
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static Method lookup() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}